@@ -0,0 +1,143 @@
+package com.goaltracker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Experience;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.Skill;
+
+/**
+ * Client events grouped by the game tick they arrive in. Recorded streams are plain text,
+ * one event per line, with a line holding just "tick" ending each tick:
+ * <pre>
+ * # comment
+ * stat ATTACK 1234567
+ * container BANK 995:1000000,4151:1
+ * chat GAMEMESSAGE Your Zulrah kill count is: 12.
+ * varp 394 20
+ * varbit 4536 1
+ * tick
+ * </pre>
+ * Container ids are either numbers or {@link InventoryID} names, and a container line
+ * replaces the whole container.
+ */
+final class EventStream
+{
+    private static final ReplayEvent[] NO_EVENTS = new ReplayEvent[0];
+
+    private final List<ReplayEvent[]> ticks;
+
+    EventStream(List<ReplayEvent[]> ticks)
+    {
+        this.ticks = ticks;
+    }
+
+    int size()
+    {
+        return ticks.size();
+    }
+
+    ReplayEvent[] getTick(int tick)
+    {
+        return ticks.get(tick);
+    }
+
+    static EventStream read(Path file) throws IOException
+    {
+        List<ReplayEvent[]> ticks = new ArrayList<>();
+        List<ReplayEvent> current = new ArrayList<>();
+        int lineNumber = 0;
+
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8))
+        {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+            {
+                continue;
+            }
+
+            try
+            {
+                if (line.equals("tick"))
+                {
+                    ticks.add(current.toArray(NO_EVENTS));
+                    current.clear();
+                }
+                else
+                {
+                    current.add(parseEvent(line));
+                }
+            }
+            catch (IllegalArgumentException | IndexOutOfBoundsException e)
+            {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        // Events after the last tick line still make up a tick
+        if (!current.isEmpty())
+        {
+            ticks.add(current.toArray(NO_EVENTS));
+        }
+
+        return new EventStream(ticks);
+    }
+
+    private static ReplayEvent parseEvent(String line)
+    {
+        String[] parts = line.split("\\s+", 3);
+        switch (parts[0])
+        {
+            case "stat":
+                Skill skill = Skill.valueOf(parts[1].toUpperCase());
+                int xp = Integer.parseInt(parts[2]);
+                return new ReplayEvent.Stat(skill, xp, Experience.getLevelForXp(xp));
+            case "container":
+                int containerId = parseContainerId(parts[1]);
+                Item[] items = parseItems(parts.length > 2 ? parts[2] : "");
+                return new ReplayEvent.Container(containerId, StubClient.container(containerId, items));
+            case "chat":
+                ChatMessageType type = ChatMessageType.valueOf(parts[1].toUpperCase());
+                return new ReplayEvent.Chat(type, parts.length > 2 ? parts[2] : "");
+            case "varp":
+                return new ReplayEvent.Var(Integer.parseInt(parts[1]), -1, Integer.parseInt(parts[2]));
+            case "varbit":
+                return new ReplayEvent.Var(-1, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            default:
+                throw new IllegalArgumentException("unknown event '" + parts[0] + "'");
+        }
+    }
+
+    private static int parseContainerId(String id)
+    {
+        if (Character.isDigit(id.charAt(0)))
+        {
+            return Integer.parseInt(id);
+        }
+        return InventoryID.valueOf(id.toUpperCase()).getId();
+    }
+
+    private static Item[] parseItems(String items)
+    {
+        if (items.isEmpty())
+        {
+            return new Item[0];
+        }
+
+        String[] stacks = items.split(",");
+        Item[] parsed = new Item[stacks.length];
+        for (int i = 0; i < stacks.length; i++)
+        {
+            String[] stack = stacks[i].trim().split(":");
+            parsed[i] = new Item(Integer.parseInt(stack[0]), stack.length > 1 ? Integer.parseInt(stack[1]) : 1);
+        }
+        return parsed;
+    }
+}
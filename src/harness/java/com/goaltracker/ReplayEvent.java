@@ -0,0 +1,153 @@
+package com.goaltracker;
+
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.Skill;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarbitChanged;
+
+/**
+ * One client event in a replayed stream. Events update the stub client first, so the plugin
+ * reads the new state while handling them, the same order the real client posts them in.
+ * Each event builds its RuneLite event object up front, keeping replay allocation down to
+ * what the plugin itself does.
+ */
+interface ReplayEvent
+{
+    void apply(StubClient client, GoalTrackerPlugin plugin);
+
+    /**
+     * Experience drop, setting the skill's total experience
+     */
+    final class Stat implements ReplayEvent
+    {
+        private final Skill skill;
+        private final int xp;
+        private final StatChanged event;
+
+        Stat(Skill skill, int xp, int level)
+        {
+            this.skill = skill;
+            this.xp = xp;
+            this.event = new StatChanged(skill, xp, level, level);
+        }
+
+        @Override
+        public void apply(StubClient client, GoalTrackerPlugin plugin)
+        {
+            client.setExperience(skill, xp);
+            plugin.onStatChanged(event);
+        }
+    }
+
+    /**
+     * Container replaced with new contents
+     */
+    final class Container implements ReplayEvent
+    {
+        private final ItemContainer container;
+        private final ItemContainerChanged event;
+
+        Container(int containerId, ItemContainer container)
+        {
+            this.container = container;
+            this.event = new ItemContainerChanged(containerId, container);
+        }
+
+        @Override
+        public void apply(StubClient client, GoalTrackerPlugin plugin)
+        {
+            client.setContainer(event.getContainerId(), container);
+            plugin.onItemContainerChanged(event);
+        }
+    }
+
+    /**
+     * A single slot of a container changing, as when depositing or withdrawing one item
+     * with the bank open. Slot events for one container share its item array.
+     */
+    final class Slot implements ReplayEvent
+    {
+        private final Item[] items;
+        private final int slot;
+        private final Item item;
+        private final ItemContainer container;
+        private final ItemContainerChanged event;
+
+        Slot(int containerId, Item[] items, ItemContainer container, int slot, Item item)
+        {
+            this.items = items;
+            this.slot = slot;
+            this.item = item;
+            this.container = container;
+            this.event = new ItemContainerChanged(containerId, container);
+        }
+
+        @Override
+        public void apply(StubClient client, GoalTrackerPlugin plugin)
+        {
+            items[slot] = item;
+            client.setContainer(event.getContainerId(), container);
+            plugin.onItemContainerChanged(event);
+        }
+    }
+
+    /**
+     * Chat message of the given type
+     */
+    final class Chat implements ReplayEvent
+    {
+        private final ChatMessage event = new ChatMessage();
+
+        Chat(ChatMessageType type, String message)
+        {
+            event.setType(type);
+            event.setMessage(message);
+            event.setName("");
+        }
+
+        @Override
+        public void apply(StubClient client, GoalTrackerPlugin plugin)
+        {
+            plugin.onChatMessage(event);
+        }
+    }
+
+    /**
+     * Varp change, or a varbit change within its varp when varbitId is not -1
+     */
+    final class Var implements ReplayEvent
+    {
+        private final int varpId;
+        private final int varbitId;
+        private final int value;
+        private final VarbitChanged event = new VarbitChanged();
+
+        Var(int varpId, int varbitId, int value)
+        {
+            this.varpId = varpId;
+            this.varbitId = varbitId;
+            this.value = value;
+            event.setVarpId(varpId);
+            event.setVarbitId(varbitId);
+            event.setValue(value);
+        }
+
+        @Override
+        public void apply(StubClient client, GoalTrackerPlugin plugin)
+        {
+            if (varbitId != -1)
+            {
+                client.setVarbit(varbitId, value);
+            }
+            else
+            {
+                client.setVarp(varpId, value);
+            }
+            plugin.onVarbitChanged(event);
+        }
+    }
+}
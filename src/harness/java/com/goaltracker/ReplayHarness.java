@@ -0,0 +1,354 @@
+package com.goaltracker;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import net.runelite.api.events.GameTick;
+
+/**
+ * Replays a recorded or synthetic event stream into the plugin on a stub client and reports
+ * per-tick latency percentiles and allocation, with no game client running. Each measured
+ * tick covers the events arriving in it followed by the GameTick that evaluates dirty goals,
+ * on the calling thread as the client thread would run them. Saves and journal writes go to
+ * the executor and panel updates to the event dispatch thread, so they are not included.
+ * <p>
+ * Run with ./gradlew replay -PreplayArgs="--workload banking --ticks 20000"
+ */
+public class ReplayHarness
+{
+    private static final long TICK_LENGTH_MS = 600;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final String USAGE = String.join("\n",
+        "Usage: ReplayHarness [options]",
+        "  --workload <name>   idle, skilling, banking or bossing (default banking)",
+        "  --events <file>     replay a recorded event stream instead of a synthetic one",
+        "  --goals <n>         number of goals tracked (default 2000)",
+        "  --bank <n>          distinct items in the bank (default 800)",
+        "  --xp-drops <n>      XP drops per tick",
+        "  --bank-open         change a bank slot every tick",
+        "  --chat <n>          chat messages per tick",
+        "  --vars <n>          var changes per tick",
+        "  --ticks <n>         measured ticks (default 10000)",
+        "  --warmup <n>        ticks replayed before measuring (default 5000)",
+        "  --seed <n>          seed for goals and synthetic events (default 42)");
+
+    private Workload workload = Workload.named("banking");
+    private String eventsFile;
+    private int ticks = 10_000;
+    private int warmup = 5_000;
+    private long seed = 42;
+
+    public static void main(String[] args) throws Exception
+    {
+        ReplayHarness harness = new ReplayHarness();
+        try
+        {
+            harness.parseArgs(args);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        harness.run();
+    }
+
+    private void parseArgs(String[] args)
+    {
+        // The workload comes first so other options override its preset
+        for (int i = 0; i < args.length - 1; i++)
+        {
+            if (args[i].equals("--workload"))
+            {
+                workload = Workload.named(args[i + 1]);
+            }
+        }
+
+        for (int i = 0; i < args.length; i++)
+        {
+            switch (args[i])
+            {
+                case "--workload":
+                    value(args, ++i);
+                    break;
+                case "--events":
+                    eventsFile = value(args, ++i);
+                    break;
+                case "--goals":
+                    workload.goals = intValue(args, ++i);
+                    break;
+                case "--bank":
+                    workload.bankSize = intValue(args, ++i);
+                    break;
+                case "--xp-drops":
+                    workload.xpDropsPerTick = intValue(args, ++i);
+                    break;
+                case "--bank-open":
+                    workload.bankOpen = true;
+                    break;
+                case "--chat":
+                    workload.chatPerTick = intValue(args, ++i);
+                    break;
+                case "--vars":
+                    workload.varsPerTick = intValue(args, ++i);
+                    break;
+                case "--ticks":
+                    ticks = intValue(args, ++i);
+                    break;
+                case "--warmup":
+                    warmup = intValue(args, ++i);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value(args, ++i));
+                    break;
+                case "--help":
+                    throw new IllegalArgumentException("");
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    private static String value(String[] args, int i)
+    {
+        if (i >= args.length)
+        {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static int intValue(String[] args, int i)
+    {
+        try
+        {
+            return Integer.parseInt(value(args, i));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Expected a number for " + args[i - 1] + ", got " + args[i]);
+        }
+    }
+
+    private void run() throws Exception
+    {
+        StubClient client = new StubClient();
+        EventStream stream;
+        String description;
+
+        if (eventsFile != null)
+        {
+            stream = EventStream.read(Paths.get(eventsFile));
+            description = eventsFile + " (" + workload.goals + " goals)";
+            // A recording is replayed once; warmup comes out of its own ticks
+            warmup = Math.min(warmup, stream.size() / 2);
+            ticks = stream.size() - warmup;
+        }
+        else
+        {
+            stream = workload.generate(workload.prepare(client), warmup + ticks, seed);
+            description = workload.toString();
+        }
+
+        PluginFixture fixture = new PluginFixture(client);
+        try
+        {
+            List<Goal> goals = BenchmarkGoals.goals(workload.goals, workload.bankSize, seed);
+            fixture.setGoals(goals);
+            report(description, replay(fixture, stream));
+        }
+        finally
+        {
+            fixture.close();
+        }
+    }
+
+    private TickStats replay(PluginFixture fixture, EventStream stream)
+    {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        StubClient client = fixture.stubClient;
+        GoalTrackerPlugin plugin = fixture.plugin;
+        GameTick gameTick = new GameTick();
+        TickStats stats = new TickStats(ticks);
+
+        for (int tick = 0; tick < warmup + ticks; tick++)
+        {
+            if (tick == warmup)
+            {
+                stats.start();
+            }
+
+            ReplayEvent[] events = stream.getTick(tick);
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+
+            for (ReplayEvent event : events)
+            {
+                event.apply(client, plugin);
+            }
+            plugin.onGameTick(gameTick);
+
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            if (tick >= warmup)
+            {
+                stats.add(tick - warmup, elapsed, allocated);
+            }
+        }
+
+        stats.finish();
+        return stats;
+    }
+
+    private void report(String description, TickStats stats)
+    {
+        System.out.println("Replay: " + description);
+        System.out.printf("Ticks: %d measured after %d warmup%n", ticks, warmup);
+        System.out.println();
+
+        System.out.println("Tick latency (us)");
+        System.out.printf("  mean    %10.1f%n", stats.meanLatency() / 1000.0);
+        for (double percentile : PERCENTILES)
+        {
+            System.out.printf("  p%-6s %10.1f%n", formatPercentile(percentile), stats.latency(percentile) / 1000.0);
+        }
+        System.out.printf("  max     %10.1f%n", stats.latency(100) / 1000.0);
+        System.out.println();
+
+        double bytesPerTick = stats.meanAllocation();
+        System.out.println("Allocation (client thread)");
+        System.out.printf("  per tick        %12.0f bytes%n", bytesPerTick);
+        System.out.printf("  p99 per tick    %12d bytes%n", stats.allocation(99));
+        System.out.printf("  at game speed   %12.3f MB/s%n", bytesPerTick * 1000 / TICK_LENGTH_MS / (1024 * 1024));
+        System.out.printf("  while replaying %12.3f MB/s%n", stats.totalAllocation() / stats.wallSeconds() / (1024 * 1024));
+        System.out.println();
+
+        System.out.printf("GC: %d collections, %d ms over %.1f s%n", stats.gcCount, stats.gcMillis, stats.wallSeconds());
+    }
+
+    private static String formatPercentile(double percentile)
+    {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+
+    /**
+     * Per-tick samples, kept in preallocated arrays so recording them does not allocate
+     */
+    private static final class TickStats
+    {
+        private final long[] latencies;
+        private final long[] allocations;
+        private long startNanos;
+        private long wallNanos;
+        private long gcCount;
+        private long gcMillis;
+
+        TickStats(int ticks)
+        {
+            latencies = new long[ticks];
+            allocations = new long[ticks];
+        }
+
+        void start()
+        {
+            startNanos = System.nanoTime();
+            gcCount = -collections();
+            gcMillis = -collectionMillis();
+        }
+
+        void add(int tick, long latency, long allocation)
+        {
+            latencies[tick] = latency;
+            allocations[tick] = allocation;
+        }
+
+        void finish()
+        {
+            wallNanos = System.nanoTime() - startNanos;
+            gcCount += collections();
+            gcMillis += collectionMillis();
+            Arrays.sort(latencies);
+        }
+
+        double meanLatency()
+        {
+            return latencies.length == 0 ? 0 : (double) sum(latencies) / latencies.length;
+        }
+
+        long latency(double percentile)
+        {
+            return percentile(latencies, percentile);
+        }
+
+        double meanAllocation()
+        {
+            return allocations.length == 0 ? 0 : (double) totalAllocation() / allocations.length;
+        }
+
+        long totalAllocation()
+        {
+            return sum(allocations);
+        }
+
+        long allocation(double percentile)
+        {
+            long[] sorted = allocations.clone();
+            Arrays.sort(sorted);
+            return percentile(sorted, percentile);
+        }
+
+        double wallSeconds()
+        {
+            return Math.max(wallNanos, 1) / 1e9;
+        }
+
+        private static long percentile(long[] sorted, double percentile)
+        {
+            if (sorted.length == 0)
+            {
+                return 0;
+            }
+            // Nearest rank
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.min(Math.max(rank, 1), sorted.length) - 1];
+        }
+
+        private static long sum(long[] values)
+        {
+            long sum = 0;
+            for (long value : values)
+            {
+                sum += value;
+            }
+            return sum;
+        }
+
+        private static long collections()
+        {
+            long count = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            {
+                count += Math.max(gc.getCollectionCount(), 0);
+            }
+            return count;
+        }
+
+        private static long collectionMillis()
+        {
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            {
+                millis += Math.max(gc.getCollectionTime(), 0);
+            }
+            return millis;
+        }
+    }
+}
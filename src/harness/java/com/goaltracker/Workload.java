@@ -0,0 +1,161 @@
+package com.goaltracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Experience;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.Skill;
+import net.runelite.api.VarPlayer;
+
+/**
+ * Synthetic event stream settings, with named presets for common play patterns
+ */
+final class Workload
+{
+    static final int INITIAL_XP = 1_000_000;
+
+    private static final int SKILL_COUNT = 12;
+    private static final int SLAYER_TASK_SIZE = 150;
+    private static final String[] CHAT_MESSAGES = {
+        "Your Goblin kill count is: %d.",
+        "Your Zulrah kill count is: %d.",
+        "You catch some shrimps.",
+        "Your completed Chambers of Xeric count is: %d.",
+        "You swing your pick at the rock."
+    };
+
+    String name;
+    int goals = 2000;
+    int bankSize = 800;
+    int xpDropsPerTick;
+    boolean bankOpen;
+    int chatPerTick;
+    int varsPerTick;
+
+    /**
+     * idle: nothing happens between ticks.
+     * skilling: three XP drops a tick and the odd game message.
+     * banking: three XP drops a tick with the bank open, one bank slot changing each tick.
+     * bossing: one XP drop, kill count and game messages, and slayer and other var changes.
+     */
+    static Workload named(String name)
+    {
+        Workload workload = new Workload();
+        workload.name = name;
+        switch (name)
+        {
+            case "idle":
+                break;
+            case "skilling":
+                workload.xpDropsPerTick = 3;
+                workload.chatPerTick = 1;
+                break;
+            case "banking":
+                workload.xpDropsPerTick = 3;
+                workload.bankOpen = true;
+                break;
+            case "bossing":
+                workload.xpDropsPerTick = 1;
+                workload.chatPerTick = 3;
+                workload.varsPerTick = 2;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown workload " + name + ", expected idle, skilling, banking or bossing");
+        }
+        return workload;
+    }
+
+    /**
+     * Set the client's skills up as the stream expects them before the first tick, returning
+     * the bank the stream opens
+     */
+    Item[] prepare(StubClient client)
+    {
+        for (Skill skill : Skill.values())
+        {
+            client.setExperience(skill, INITIAL_XP);
+        }
+        return BenchmarkGoals.bank(bankSize);
+    }
+
+    /**
+     * Build the stream up front, so generating events is not part of the measured ticks. The
+     * first tick delivers the bank, the way opening it does after login.
+     */
+    EventStream generate(Item[] bank, int ticks, long seed)
+    {
+        Random random = new Random(seed);
+        int[] xp = new int[SKILL_COUNT];
+        Arrays.fill(xp, INITIAL_XP);
+        int killCount = 0;
+        int taskRemaining = SLAYER_TASK_SIZE;
+
+        int bankId = InventoryID.BANK.getId();
+        ItemContainer bankContainer = StubClient.container(bankId, bank);
+
+        List<ReplayEvent[]> stream = new ArrayList<>(ticks);
+        List<ReplayEvent> events = new ArrayList<>();
+
+        for (int tick = 0; tick < ticks; tick++)
+        {
+            events.clear();
+
+            if (tick == 0)
+            {
+                events.add(new ReplayEvent.Container(bankId, bankContainer));
+            }
+
+            for (int i = 0; i < xpDropsPerTick; i++)
+            {
+                int skill = random.nextInt(SKILL_COUNT);
+                xp[skill] += 10 + random.nextInt(300);
+                events.add(new ReplayEvent.Stat(BenchmarkGoals.skill(skill), xp[skill], Experience.getLevelForXp(xp[skill])));
+            }
+
+            if (bankOpen && bank.length > 0)
+            {
+                int slot = random.nextInt(bank.length);
+                Item item = new Item(bank[slot].getId(), 1 + random.nextInt(5000));
+                events.add(new ReplayEvent.Slot(bankId, bank, bankContainer, slot, item));
+            }
+
+            for (int i = 0; i < chatPerTick; i++)
+            {
+                String message = String.format(CHAT_MESSAGES[random.nextInt(CHAT_MESSAGES.length)], ++killCount);
+                ChatMessageType type = message.contains("count") ? ChatMessageType.GAMEMESSAGE : ChatMessageType.SPAM;
+                events.add(new ReplayEvent.Chat(type, message));
+            }
+
+            for (int i = 0; i < varsPerTick; i++)
+            {
+                if (i == 0)
+                {
+                    // A slayer task counting down, restarting once finished
+                    taskRemaining = taskRemaining == 0 ? SLAYER_TASK_SIZE : taskRemaining - 1;
+                    events.add(new ReplayEvent.Var(VarPlayer.SLAYER_TASK_SIZE, -1, taskRemaining));
+                }
+                else
+                {
+                    // Most var changes the client posts are ones no goal subscribes to
+                    events.add(new ReplayEvent.Var(-1, random.nextInt(10_000), random.nextInt(16)));
+                }
+            }
+
+            stream.add(events.toArray(new ReplayEvent[0]));
+        }
+
+        return new EventStream(stream);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s (%d goals, bank of %d, %d XP drops/tick%s, %d chat/tick, %d vars/tick)",
+            name, goals, bankSize, xpDropsPerTick, bankOpen ? ", bank open" : "", chatPerTick, varsPerTick);
+    }
+}
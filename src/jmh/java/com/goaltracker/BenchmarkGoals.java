@@ -0,0 +1,85 @@
+package com.goaltracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.runelite.api.Item;
+import net.runelite.api.Quest;
+import net.runelite.api.Skill;
+
+/**
+ * Deterministic goal sets and banks shared by the benchmarks and the replay harness
+ */
+final class BenchmarkGoals
+{
+    private static final Skill[] SKILLS = {
+        Skill.ATTACK, Skill.STRENGTH, Skill.DEFENCE, Skill.RANGED, Skill.MAGIC, Skill.MINING,
+        Skill.WOODCUTTING, Skill.FISHING, Skill.COOKING, Skill.SLAYER, Skill.AGILITY, Skill.HERBLORE
+    };
+    private static final int FIRST_ITEM_ID = 1000;
+
+    private BenchmarkGoals()
+    {
+    }
+
+    /**
+     * A bank holding one stack each of bankSize distinct items
+     */
+    static Item[] bank(int bankSize)
+    {
+        Item[] items = new Item[bankSize];
+        for (int i = 0; i < bankSize; i++)
+        {
+            items[i] = new Item(itemId(i), 1 + i % 5000);
+        }
+        return items;
+    }
+
+    static int itemId(int index)
+    {
+        return FIRST_ITEM_ID + index * 3;
+    }
+
+    static Skill skill(int index)
+    {
+        return SKILLS[index % SKILLS.length];
+    }
+
+    /**
+     * A mix of skill, item, combat and quest goals in roughly the proportions players keep
+     */
+    static List<Goal> goals(int count, int bankSize, long seed)
+    {
+        Random random = new Random(seed);
+        Quest[] quests = Quest.values();
+        List<Goal> goals = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++)
+        {
+            Goal goal;
+            switch (i % 8)
+            {
+                case 0:
+                case 1:
+                case 2:
+                    goal = new SkillGoal("Skill " + i, "", skill(i), SkillGoalType.EXPERIENCE, 1_000_000 + random.nextInt(10_000_000), "Skills");
+                    break;
+                case 3:
+                case 4:
+                case 5:
+                    ItemGoalType type = i % 2 == 0 ? ItemGoalType.BANK : ItemGoalType.ALL;
+                    goal = new ItemGoal("Item " + i, "", itemId(random.nextInt(bankSize)), type, 1 + random.nextInt(10_000), "Items");
+                    break;
+                case 6:
+                    goal = new CombatGoal("Kills " + i, "", "Goblin", 0, CombatGoalType.MONSTER_KILLS, 100, "Combat");
+                    break;
+                default:
+                    goal = new QuestGoal("Quest " + i, "", quests[random.nextInt(quests.length)], "Quests");
+                    break;
+            }
+            goals.add(goal);
+        }
+
+        return goals;
+    }
+}
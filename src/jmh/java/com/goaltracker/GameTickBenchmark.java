@@ -0,0 +1,131 @@
+package com.goaltracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.Skill;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.StatChanged;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * One game tick as the plugin sees it: the tick's events mark the goals they affect dirty, and
+ * the tick evaluates only those. Each invocation delivers the events through the plugin's
+ * subscribers and then the tick, so the score is the client thread time per tick.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameTickBenchmark
+{
+    private static final int BANK_SIZE = 100;
+    private static final GameTick TICK = new GameTick();
+
+    @Param({"10", "100", "1000", "10000"})
+    public int goalCount;
+
+    @Param({"1", "3", "6"})
+    public int xpDropsPerTick;
+
+    private PluginFixture fixture;
+    private final List<Skill> skills = new ArrayList<>();
+    private int xp = 1_000_000;
+    private int next;
+    // Two banks differing in one stack, swapped in turn so every bank event changes a count
+    private ItemContainerChanged[] bankChanges;
+    private ItemContainer[] banks;
+    private int bankIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        StubClient client = new StubClient();
+        for (Skill skill : Skill.values())
+        {
+            client.setExperience(skill, xp);
+        }
+
+        Item[] items = BenchmarkGoals.bank(BANK_SIZE);
+        Item[] changedItems = items.clone();
+        changedItems[0] = new Item(items[0].getId(), items[0].getQuantity() + 1);
+        int bankId = InventoryID.BANK.getId();
+        banks = new ItemContainer[]{StubClient.container(bankId, items), StubClient.container(bankId, changedItems)};
+        bankChanges = new ItemContainerChanged[]{
+            new ItemContainerChanged(bankId, banks[0]), new ItemContainerChanged(bankId, banks[1])};
+        client.setContainer(bankId, banks[0]);
+
+        fixture = new PluginFixture(client);
+        List<Goal> goals = BenchmarkGoals.goals(goalCount, BANK_SIZE, 42);
+        fixture.setGoals(goals);
+        for (Goal goal : goals)
+        {
+            if (goal instanceof SkillGoal)
+            {
+                skills.add(((SkillGoal) goal).getSkill());
+            }
+        }
+
+        // Settle the goals and the item counts before measuring
+        fixture.plugin.onItemContainerChanged(bankChanges[0]);
+        fixture.plugin.onGameTick(TICK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        fixture.close();
+    }
+
+    /**
+     * A tick with no events, the floor every tick pays
+     */
+    @Benchmark
+    public void idle()
+    {
+        fixture.plugin.onGameTick(TICK);
+    }
+
+    @Benchmark
+    public void xpDrops()
+    {
+        for (int i = 0; i < xpDropsPerTick; i++)
+        {
+            gainXp();
+        }
+        fixture.plugin.onGameTick(TICK);
+    }
+
+    @Benchmark
+    public void xpDropsAndBankChange()
+    {
+        for (int i = 0; i < xpDropsPerTick; i++)
+        {
+            gainXp();
+        }
+        bankIndex ^= 1;
+        fixture.stubClient.setContainer(InventoryID.BANK.getId(), banks[bankIndex]);
+        fixture.plugin.onItemContainerChanged(bankChanges[bankIndex]);
+        fixture.plugin.onGameTick(TICK);
+    }
+
+    private void gainXp()
+    {
+        Skill skill = skills.isEmpty() ? Skill.ATTACK : skills.get(next++ % skills.size());
+        fixture.stubClient.setExperience(skill, ++xp);
+        fixture.plugin.onStatChanged(new StatChanged(skill, xp, 99, 99));
+    }
+}
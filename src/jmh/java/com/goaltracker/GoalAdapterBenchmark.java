@@ -0,0 +1,137 @@
+package com.goaltracker;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serializing every goal to JSON and back with the streaming GoalTypeAdapterFactory against the
+ * tree-model adapter it replaced, which built a JsonObject per goal on read. Run with -prof gc
+ * (./gradlew jmh -PjmhIncludes=GoalAdapter, adding profilers = ['gc'] to the jmh block) for
+ * allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GoalAdapterBenchmark
+{
+    @Param({"10000"})
+    public int goalCount;
+
+    private List<Goal> goals;
+    private Gson streaming;
+    private Gson tree;
+    private List<String> streamingJson;
+    private List<String> treeJson;
+
+    @Setup
+    public void setUp()
+    {
+        goals = BenchmarkGoals.goals(goalCount, 100, 42);
+
+        streaming = new GsonBuilder()
+            .registerTypeAdapterFactory(new GoalTypeAdapterFactory())
+            .registerTypeAdapter(Instant.class, new InstantTypeAdapter().nullSafe())
+            .create();
+        // Same Instant handling, so only the goal adapter differs
+        tree = new GsonBuilder()
+            .registerTypeAdapter(Goal.class, new TreeGoalAdapter())
+            .registerTypeAdapter(Instant.class, new InstantTypeAdapter().nullSafe())
+            .create();
+
+        streamingJson = save(streaming);
+        treeJson = save(tree);
+    }
+
+    @Benchmark
+    public List<String> saveStreaming()
+    {
+        return save(streaming);
+    }
+
+    @Benchmark
+    public List<String> saveTree()
+    {
+        return save(tree);
+    }
+
+    @Benchmark
+    public List<Goal> loadStreaming()
+    {
+        return load(streaming, streamingJson);
+    }
+
+    @Benchmark
+    public List<Goal> loadTree()
+    {
+        return load(tree, treeJson);
+    }
+
+    /**
+     * Goals stored flat by earlier versions, read through the streaming adapter's tree fallback
+     */
+    @Benchmark
+    public List<Goal> loadLegacyStreaming()
+    {
+        return load(streaming, treeJson);
+    }
+
+    private List<String> save(Gson gson)
+    {
+        List<String> json = new ArrayList<>(goals.size());
+        for (Goal goal : goals)
+        {
+            json.add(gson.toJson(goal, Goal.class));
+        }
+        return json;
+    }
+
+    private static List<Goal> load(Gson gson, List<String> json)
+    {
+        List<Goal> loaded = new ArrayList<>(json.size());
+        for (String goal : json)
+        {
+            loaded.add(gson.fromJson(goal, Goal.class));
+        }
+        return loaded;
+    }
+
+    /**
+     * The adapter goals were stored with before GoalTypeAdapterFactory, covering every goal type
+     */
+    private static class TreeGoalAdapter implements JsonSerializer<Goal>, JsonDeserializer<Goal>
+    {
+        @Override
+        public JsonElement serialize(Goal goal, Type type, JsonSerializationContext context)
+        {
+            return context.serialize(goal);
+        }
+
+        @Override
+        public Goal deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException
+        {
+            JsonObject jsonObject = json.getAsJsonObject();
+            GoalType goalType = GoalType.valueOf(jsonObject.get("type").getAsString());
+            return context.deserialize(jsonObject, GoalTypeAdapterFactory.goalClass(goalType));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.goaltracker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.config.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Loading and saving every goal through the binary snapshot against the per-goal JSON in the
+ * config. The stored size of each is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GoalSnapshotBenchmark
+{
+    private static final String CONFIG_GROUP = "goaltracker";
+
+    @Param({"100", "1000", "10000"})
+    public int goalCount;
+
+    private List<Goal> goals;
+    private final Map<String, String> stored = new HashMap<>();
+    private ConfigManager configManager;
+    private Path snapshotFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        goals = BenchmarkGoals.goals(goalCount, 100, 42);
+        configManager = PluginFixture.configManager(stored);
+        new GoalManager(null, null).saveGoals(goals, configManager, CONFIG_GROUP);
+
+        snapshotFile = Files.createTempFile("goals", ".bin");
+        GoalSnapshotCodec.write(snapshotFile, 1, goals);
+
+        long jsonBytes = 0;
+        for (String value : stored.values())
+        {
+            jsonBytes += value.length();
+        }
+        System.out.printf("%n%d goals: config JSON %d chars, snapshot %d bytes%n",
+            goalCount, jsonBytes, Files.size(snapshotFile));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Benchmark
+    public List<Goal> loadConfig()
+    {
+        return new GoalManager(null, null).loadGoals(configManager, CONFIG_GROUP);
+    }
+
+    @Benchmark
+    public GoalSnapshotCodec.Snapshot loadSnapshot() throws IOException
+    {
+        return GoalSnapshotCodec.read(snapshotFile);
+    }
+
+    /**
+     * Write every goal from scratch, as the first save after loading from a stale snapshot does
+     */
+    @Benchmark
+    public void saveConfig()
+    {
+        new GoalManager(null, null).saveGoals(goals, configManager, CONFIG_GROUP);
+    }
+
+    @Benchmark
+    public void saveSnapshot() throws IOException
+    {
+        GoalSnapshotCodec.write(snapshotFile, 1, goals);
+    }
+}
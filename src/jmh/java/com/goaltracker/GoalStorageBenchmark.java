@@ -0,0 +1,67 @@
+package com.goaltracker;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.config.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Saving goals to and loading them from the config through GoalManager
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GoalStorageBenchmark
+{
+    private static final String CONFIG_GROUP = "goaltracker";
+
+    @Param({"10", "100", "1000", "10000"})
+    public int goalCount;
+
+    private List<Goal> goals;
+    private final Map<String, String> stored = new HashMap<>();
+    private ConfigManager configManager;
+    private GoalManager savedManager;
+
+    @Setup
+    public void setUp()
+    {
+        goals = BenchmarkGoals.goals(goalCount, 100, 42);
+        stored.clear();
+        configManager = PluginFixture.configManager(stored);
+
+        savedManager = new GoalManager(null, null);
+        savedManager.saveGoals(goals, configManager, CONFIG_GROUP);
+    }
+
+    /**
+     * Write every goal from scratch and read them all back
+     */
+    @Benchmark
+    public List<Goal> saveLoadRoundTrip()
+    {
+        stored.clear();
+        new GoalManager(null, null).saveGoals(goals, configManager, CONFIG_GROUP);
+        return new GoalManager(null, null).loadGoals(configManager, CONFIG_GROUP);
+    }
+
+    /**
+     * Save after one goal changed, the common case on a tick that made progress
+     */
+    @Benchmark
+    public void saveOneChanged()
+    {
+        Goal goal = goals.get(0);
+        goal.setCurrentProgress(goal.getCurrentProgress() + 1);
+        savedManager.saveGoals(goals, configManager, CONFIG_GROUP);
+    }
+}
@@ -0,0 +1,76 @@
+package com.goaltracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counting items for item goals after a bank change: each goal scanning the containers through
+ * ItemGoal.getItemCount, against one re-count into the ItemCountIndex that goals then read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemCountBenchmark
+{
+    @Param({"10", "100", "1000", "10000"})
+    public int goalCount;
+
+    @Param({"100", "800"})
+    public int bankSize;
+
+    private StubClient client;
+    private ItemContainer bank;
+    private ItemCountIndex itemCounts;
+    private final List<ItemGoal> goals = new ArrayList<>();
+
+    @Setup
+    public void setUp()
+    {
+        client = new StubClient();
+        bank = client.setContainer(InventoryID.BANK, BenchmarkGoals.bank(bankSize));
+        itemCounts = new ItemCountIndex(new ItemPriceCache());
+
+        goals.clear();
+        for (int i = 0; i < goalCount; i++)
+        {
+            goals.add(new ItemGoal("Item " + i, "", BenchmarkGoals.itemId(i % bankSize), ItemGoalType.BANK, 1_000, "Items"));
+        }
+    }
+
+    @Benchmark
+    public int scanContainers()
+    {
+        int total = 0;
+        for (ItemGoal goal : goals)
+        {
+            goal.updateProgress(client.getClient());
+            total += goal.getCurrentProgress();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int countedIndex()
+    {
+        itemCounts.update(InventoryID.BANK.getId(), bank);
+
+        int total = 0;
+        for (ItemGoal goal : goals)
+        {
+            goal.updateProgress(itemCounts);
+            total += goal.getCurrentProgress();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,65 @@
+package com.goaltracker;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Rebuilding the goal panel, both when the same goals are on screen and when the layout has to
+ * be redone. Called off the event dispatch thread, which is safe headless since nothing is
+ * shown, so only the rebuild itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PanelRebuildBenchmark
+{
+    @Param({"10", "100", "1000", "10000"})
+    public int goalCount;
+
+    private PluginFixture fixture;
+    private GoalTrackerPanel panel;
+    private Field currentLayout;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, NoSuchFieldException
+    {
+        fixture = new PluginFixture(new StubClient());
+        fixture.setGoals(BenchmarkGoals.goals(goalCount, 100, 42));
+        panel = (GoalTrackerPanel) fixture.get("panel");
+        panel.rebuild();
+
+        currentLayout = GoalTrackerPanel.class.getDeclaredField("currentLayout");
+        currentLayout.setAccessible(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void rebuildUnchanged()
+    {
+        panel.rebuild();
+    }
+
+    @Benchmark
+    public void rebuildLayout() throws IllegalAccessException
+    {
+        // Forget the layout on screen so the rebuild lays everything out again
+        currentLayout.set(panel, null);
+        panel.rebuild();
+    }
+}
@@ -0,0 +1,99 @@
+package com.goaltracker;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Event dispatch thread time spent refreshing the panel for one game tick of XP drops. Each
+ * drop changes a skill goal and asks for a refresh, either through the coalescing refresh
+ * pipeline or as one full rebuild per request, the way the panel refreshed before requests
+ * were merged. Each invocation waits for the EDT to run everything queued, so the score is
+ * the EDT time per tick.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PanelRefreshBenchmark
+{
+    private static final Runnable NOTHING = () ->
+    {
+    };
+
+    @Param({"100", "1000", "10000"})
+    public int goalCount;
+
+    @Param({"1", "3", "6"})
+    public int xpDropsPerTick;
+
+    private PluginFixture fixture;
+    private GoalTrackerPanel panel;
+    private final List<Goal> skillGoals = new ArrayList<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException, InvocationTargetException
+    {
+        fixture = new PluginFixture(new StubClient());
+        List<Goal> goals = BenchmarkGoals.goals(goalCount, 100, 42);
+        fixture.setGoals(goals);
+        for (Goal goal : goals)
+        {
+            if (goal instanceof SkillGoal)
+            {
+                skillGoals.add(goal);
+            }
+        }
+
+        panel = (GoalTrackerPanel) fixture.get("panel");
+        SwingUtilities.invokeAndWait(panel::rebuild);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void coalesced() throws InterruptedException, InvocationTargetException
+    {
+        for (int i = 0; i < xpDropsPerTick; i++)
+        {
+            panel.updateGoalList(Collections.singletonList(gainXp().getId()));
+        }
+        SwingUtilities.invokeAndWait(NOTHING);
+    }
+
+    @Benchmark
+    public void rebuildPerRequest() throws InterruptedException, InvocationTargetException
+    {
+        for (int i = 0; i < xpDropsPerTick; i++)
+        {
+            gainXp();
+            SwingUtilities.invokeLater(panel::rebuild);
+        }
+        SwingUtilities.invokeAndWait(NOTHING);
+    }
+
+    private Goal gainXp()
+    {
+        Goal goal = skillGoals.get(next++ % skillGoals.size());
+        goal.setCurrentProgress(goal.getCurrentProgress() + 1);
+        return goal;
+    }
+}
@@ -0,0 +1,219 @@
+package com.goaltracker;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.game.ItemManager;
+
+/**
+ * A {@link GoalTrackerPlugin} wired to a {@link StubClient} and in-memory config, with goals
+ * loaded directly instead of through a profile, for benchmarks and replay runs.
+ */
+class PluginFixture
+{
+    static final String PROFILE_KEY = "rsprofile.fixture";
+
+    final StubClient stubClient;
+    final ConfigManager configManager;
+    final Map<String, String> storedConfig = new ConcurrentHashMap<>();
+    final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    final GoalTrackerPlugin plugin = new GoalTrackerPlugin();
+    final Path dataDirectory;
+    private final ProgressJournal journal;
+
+    PluginFixture(StubClient stubClient) throws IOException
+    {
+        this.stubClient = stubClient;
+        this.configManager = configManager(storedConfig);
+        this.dataDirectory = Files.createTempDirectory("goal-tracker-fixture");
+
+        set("client", stubClient.getClient());
+        set("config", config());
+        set("configManager", configManager);
+        set("executor", executor);
+        set("clientThread", clientThread());
+        set("itemManager", itemManager());
+        set("questVars", QuestVarTable.load());
+        set("panel", new GoalTrackerPanel(plugin));
+
+        journal = new ProgressJournal(dataDirectory, executor);
+        journal.open();
+        set("goalManager", new GoalManager(executor, null));
+        set("journal", journal);
+    }
+
+    /**
+     * Replace the plugin's goals, indexing them the way a profile load does
+     */
+    @SuppressWarnings("unchecked")
+    void setGoals(List<Goal> goals)
+    {
+        List<Goal> pluginGoals = (List<Goal>) get("goals");
+        pluginGoals.clear();
+        ((Map<?, ?>) get("goalsByCategory")).clear();
+        ((Map<?, ?>) get("skillGoals")).clear();
+        ((VarGoalIndex) get("varGoals")).clear();
+        ((KillCountIndex) get("killCounts")).clear();
+        ((List<?>) get("unmappedQuestGoals")).clear();
+
+        for (Goal goal : goals)
+        {
+            pluginGoals.add(goal);
+            invoke("indexGoal", new Class<?>[]{Goal.class}, goal);
+        }
+        ((GoalGraph) get("goalGraph")).rebuild(pluginGoals);
+        ((CompositeGoalIndex) get("compositeGoals")).rebuild(pluginGoals);
+        invoke("publishGoalList", new Class<?>[0]);
+        set("goalsLoaded", true);
+    }
+
+    /**
+     * Run the plugin's per-tick evaluation of dirty goals
+     */
+    void processDirtyGoals()
+    {
+        invoke("processDirtyGoals", new Class<?>[0]);
+    }
+
+    void close()
+    {
+        journal.close();
+        executor.shutdownNow();
+    }
+
+    Object get(String name)
+    {
+        try
+        {
+            return field(name).get(plugin);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void set(String name, Object value)
+    {
+        try
+        {
+            field(name).set(plugin, value);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Object invoke(String name, Class<?>[] parameterTypes, Object... args)
+    {
+        try
+        {
+            Method method = GoalTrackerPlugin.class.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return method.invoke(plugin, args);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Field field(String name)
+    {
+        try
+        {
+            Field field = GoalTrackerPlugin.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        }
+        catch (NoSuchFieldException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Config manager mock storing values in a map, for both global and profile keys
+     */
+    static ConfigManager configManager(Map<String, String> stored)
+    {
+        ConfigManager configManager = mock(ConfigManager.class);
+
+        when(configManager.getRSProfileKey()).thenReturn(PROFILE_KEY);
+        when(configManager.getConfiguration(anyString(), anyString()))
+            .thenAnswer(i -> stored.get(i.getArgument(0) + "." + i.getArgument(1)));
+        when(configManager.getConfiguration(anyString(), anyString(), anyString()))
+            .thenAnswer(i -> stored.get(i.getArgument(0) + "." + i.getArgument(1) + "." + i.getArgument(2)));
+        doAnswer(i -> stored.put(i.getArgument(0) + "." + i.getArgument(1), i.getArgument(2)))
+            .when(configManager).setConfiguration(anyString(), anyString(), anyString());
+        doAnswer(i -> stored.put(i.getArgument(0) + "." + i.getArgument(1) + "." + i.getArgument(2), i.getArgument(3)))
+            .when(configManager).setConfiguration(anyString(), anyString(), anyString(), anyString());
+        doAnswer(i -> stored.remove(i.getArgument(0) + "." + i.getArgument(1)))
+            .when(configManager).unsetConfiguration(anyString(), anyString());
+        doAnswer(i -> stored.remove(i.getArgument(0) + "." + i.getArgument(1) + "." + i.getArgument(2)))
+            .when(configManager).unsetConfiguration(anyString(), anyString(), anyString());
+
+        return configManager;
+    }
+
+    /**
+     * Plugin config answering with each item's default
+     */
+    static GoalTrackerConfig config()
+    {
+        return (GoalTrackerConfig) Proxy.newProxyInstance(GoalTrackerConfig.class.getClassLoader(), new Class<?>[]{GoalTrackerConfig.class},
+            (proxy, method, args) -> MethodHandles.privateLookupIn(GoalTrackerConfig.class, MethodHandles.lookup())
+                .unreflectSpecial(method, GoalTrackerConfig.class)
+                .bindTo(proxy)
+                .invokeWithArguments(args == null ? new Object[0] : args));
+    }
+
+    /**
+     * Client thread mock running submitted work immediately on the caller
+     */
+    private static ClientThread clientThread()
+    {
+        ClientThread clientThread = mock(ClientThread.class);
+        doAnswer(i ->
+        {
+            ((Runnable) i.getArgument(0)).run();
+            return null;
+        }).when(clientThread).invokeLater(any(Runnable.class));
+        doAnswer(i ->
+        {
+            ((Runnable) i.getArgument(0)).run();
+            return null;
+        }).when(clientThread).invoke(any(Runnable.class));
+        return clientThread;
+    }
+
+    /**
+     * Item manager mock pricing every item at a value derived from its id
+     */
+    private static ItemManager itemManager()
+    {
+        ItemManager itemManager = mock(ItemManager.class);
+        when(itemManager.canonicalize(anyInt())).thenAnswer(i -> i.getArgument(0));
+        when(itemManager.getItemPrice(anyInt())).thenAnswer(i -> ((int) i.getArgument(0) % 1000) * 100);
+        return itemManager;
+    }
+}
@@ -0,0 +1,219 @@
+package com.goaltracker;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.api.Client;
+import net.runelite.api.Experience;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.Skill;
+
+/**
+ * In-memory stand-in for the game client. It is a dynamic proxy, so only the calls the plugin
+ * makes are answered; everything else returns zero, false or null.
+ */
+class StubClient implements InvocationHandler
+{
+    private final Client client = (Client) Proxy.newProxyInstance(
+        Client.class.getClassLoader(), new Class<?>[]{Client.class}, this);
+
+    private GameState gameState = GameState.LOGGED_IN;
+    // Primitive state, so replayed events allocate as little as possible in the stub
+    private final int[] experience = new int[Skill.values().length];
+    private final Map<Integer, ItemContainer> containers = new HashMap<>();
+    private final IntIntMap varps = new IntIntMap();
+    private final IntIntMap varbits = new IntIntMap();
+    // Script results, read by Quest.getState; 0 reads as a quest in progress
+    private final int[] intStack = new int[16];
+
+    Client getClient()
+    {
+        return client;
+    }
+
+    void setGameState(GameState gameState)
+    {
+        this.gameState = gameState;
+    }
+
+    void setExperience(Skill skill, int xp)
+    {
+        experience[skill.ordinal()] = xp;
+    }
+
+    int getExperience(Skill skill)
+    {
+        return experience[skill.ordinal()];
+    }
+
+    void setVarp(int varpId, int value)
+    {
+        varps.put(varpId, value);
+    }
+
+    void setVarbit(int varbitId, int value)
+    {
+        varbits.put(varbitId, value);
+    }
+
+    ItemContainer setContainer(InventoryID inventoryId, Item[] items)
+    {
+        ItemContainer container = container(inventoryId.getId(), items);
+        setContainer(inventoryId.getId(), container);
+        return container;
+    }
+
+    void setContainer(int containerId, ItemContainer container)
+    {
+        containers.put(containerId, container);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args)
+    {
+        switch (method.getName())
+        {
+            case "getGameState":
+                return gameState;
+            case "getSkillExperience":
+                return getExperience((Skill) args[0]);
+            case "getRealSkillLevel":
+            case "getBoostedSkillLevel":
+                return Experience.getLevelForXp(getExperience((Skill) args[0]));
+            case "getTotalLevel":
+                int total = 0;
+                for (Skill skill : Skill.values())
+                {
+                    if (skill != Skill.OVERALL)
+                    {
+                        total += Experience.getLevelForXp(getExperience(skill));
+                    }
+                }
+                return total;
+            case "getOverallExperience":
+                long xp = 0;
+                for (Skill skill : Skill.values())
+                {
+                    if (skill != Skill.OVERALL)
+                    {
+                        xp += getExperience(skill);
+                    }
+                }
+                return xp;
+            case "getItemContainer":
+                int containerId = args[0] instanceof InventoryID ? ((InventoryID) args[0]).getId() : (int) args[0];
+                return containers.get(containerId);
+            case "getVarpValue":
+                return varps.get((int) args[0]);
+            case "getVarbitValue":
+                return varbits.get((int) args[0]);
+            case "getIntStack":
+                return intStack;
+            case "isClientThread":
+                return true;
+            default:
+                return objectMethod(proxy, method, args);
+        }
+    }
+
+    /**
+     * A fixed container holding the given items
+     */
+    static ItemContainer container(int id, Item[] items)
+    {
+        return (ItemContainer) Proxy.newProxyInstance(ItemContainer.class.getClassLoader(), new Class<?>[]{ItemContainer.class},
+            (proxy, method, args) ->
+            {
+                switch (method.getName())
+                {
+                    case "getId":
+                        return id;
+                    case "getItems":
+                        return items;
+                    case "size":
+                        return items.length;
+                    case "getItem":
+                        int slot = (int) args[0];
+                        return slot >= 0 && slot < items.length ? items[slot] : null;
+                    case "count":
+                        int count = 0;
+                        for (Item item : items)
+                        {
+                            if (item.getId() == (int) args[0])
+                            {
+                                count += item.getQuantity();
+                            }
+                        }
+                        return count;
+                    case "contains":
+                        for (Item item : items)
+                        {
+                            if (item.getId() == (int) args[0])
+                            {
+                                return true;
+                            }
+                        }
+                        return false;
+                    default:
+                        return objectMethod(proxy, method, args);
+                }
+            });
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args)
+    {
+        switch (method.getName())
+        {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Stub" + method.getDeclaringClass().getSimpleName();
+            default:
+                return defaultValue(method.getReturnType());
+        }
+    }
+
+    private static Object defaultValue(Class<?> type)
+    {
+        if (type == boolean.class)
+        {
+            return false;
+        }
+        if (type == long.class)
+        {
+            return 0L;
+        }
+        if (type == int.class)
+        {
+            return 0;
+        }
+        if (type == short.class)
+        {
+            return (short) 0;
+        }
+        if (type == byte.class)
+        {
+            return (byte) 0;
+        }
+        if (type == char.class)
+        {
+            return (char) 0;
+        }
+        if (type == float.class)
+        {
+            return 0f;
+        }
+        if (type == double.class)
+        {
+            return 0d;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.goaltracker;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.runelite.api.Varbits;
+import net.runelite.client.util.Text;
+
+/**
+ * Achievement diary tiers and the varbit value that marks each one complete.
+ * Karamja's easy, medium and hard tiers use 2 for complete, every other tier uses 1.
+ */
+@Getter
+@AllArgsConstructor
+enum AchievementDiary
+{
+    ARDOUGNE_EASY(Varbits.DIARY_ARDOUGNE_EASY, 1),
+    ARDOUGNE_MEDIUM(Varbits.DIARY_ARDOUGNE_MEDIUM, 1),
+    ARDOUGNE_HARD(Varbits.DIARY_ARDOUGNE_HARD, 1),
+    ARDOUGNE_ELITE(Varbits.DIARY_ARDOUGNE_ELITE, 1),
+    DESERT_EASY(Varbits.DIARY_DESERT_EASY, 1),
+    DESERT_MEDIUM(Varbits.DIARY_DESERT_MEDIUM, 1),
+    DESERT_HARD(Varbits.DIARY_DESERT_HARD, 1),
+    DESERT_ELITE(Varbits.DIARY_DESERT_ELITE, 1),
+    FALADOR_EASY(Varbits.DIARY_FALADOR_EASY, 1),
+    FALADOR_MEDIUM(Varbits.DIARY_FALADOR_MEDIUM, 1),
+    FALADOR_HARD(Varbits.DIARY_FALADOR_HARD, 1),
+    FALADOR_ELITE(Varbits.DIARY_FALADOR_ELITE, 1),
+    FREMENNIK_EASY(Varbits.DIARY_FREMENNIK_EASY, 1),
+    FREMENNIK_MEDIUM(Varbits.DIARY_FREMENNIK_MEDIUM, 1),
+    FREMENNIK_HARD(Varbits.DIARY_FREMENNIK_HARD, 1),
+    FREMENNIK_ELITE(Varbits.DIARY_FREMENNIK_ELITE, 1),
+    KANDARIN_EASY(Varbits.DIARY_KANDARIN_EASY, 1),
+    KANDARIN_MEDIUM(Varbits.DIARY_KANDARIN_MEDIUM, 1),
+    KANDARIN_HARD(Varbits.DIARY_KANDARIN_HARD, 1),
+    KANDARIN_ELITE(Varbits.DIARY_KANDARIN_ELITE, 1),
+    KARAMJA_EASY(Varbits.DIARY_KARAMJA_EASY, 2),
+    KARAMJA_MEDIUM(Varbits.DIARY_KARAMJA_MEDIUM, 2),
+    KARAMJA_HARD(Varbits.DIARY_KARAMJA_HARD, 2),
+    KARAMJA_ELITE(Varbits.DIARY_KARAMJA_ELITE, 1),
+    KOUREND_EASY(Varbits.DIARY_KOUREND_EASY, 1),
+    KOUREND_MEDIUM(Varbits.DIARY_KOUREND_MEDIUM, 1),
+    KOUREND_HARD(Varbits.DIARY_KOUREND_HARD, 1),
+    KOUREND_ELITE(Varbits.DIARY_KOUREND_ELITE, 1),
+    LUMBRIDGE_EASY(Varbits.DIARY_LUMBRIDGE_EASY, 1),
+    LUMBRIDGE_MEDIUM(Varbits.DIARY_LUMBRIDGE_MEDIUM, 1),
+    LUMBRIDGE_HARD(Varbits.DIARY_LUMBRIDGE_HARD, 1),
+    LUMBRIDGE_ELITE(Varbits.DIARY_LUMBRIDGE_ELITE, 1),
+    MORYTANIA_EASY(Varbits.DIARY_MORYTANIA_EASY, 1),
+    MORYTANIA_MEDIUM(Varbits.DIARY_MORYTANIA_MEDIUM, 1),
+    MORYTANIA_HARD(Varbits.DIARY_MORYTANIA_HARD, 1),
+    MORYTANIA_ELITE(Varbits.DIARY_MORYTANIA_ELITE, 1),
+    VARROCK_EASY(Varbits.DIARY_VARROCK_EASY, 1),
+    VARROCK_MEDIUM(Varbits.DIARY_VARROCK_MEDIUM, 1),
+    VARROCK_HARD(Varbits.DIARY_VARROCK_HARD, 1),
+    VARROCK_ELITE(Varbits.DIARY_VARROCK_ELITE, 1),
+    WESTERN_EASY(Varbits.DIARY_WESTERN_EASY, 1),
+    WESTERN_MEDIUM(Varbits.DIARY_WESTERN_MEDIUM, 1),
+    WESTERN_HARD(Varbits.DIARY_WESTERN_HARD, 1),
+    WESTERN_ELITE(Varbits.DIARY_WESTERN_ELITE, 1),
+    WILDERNESS_EASY(Varbits.DIARY_WILDERNESS_EASY, 1),
+    WILDERNESS_MEDIUM(Varbits.DIARY_WILDERNESS_MEDIUM, 1),
+    WILDERNESS_HARD(Varbits.DIARY_WILDERNESS_HARD, 1),
+    WILDERNESS_ELITE(Varbits.DIARY_WILDERNESS_ELITE, 1);
+
+    private final int varbit;
+    private final int completeValue;
+
+    @Override
+    public String toString()
+    {
+        return Text.titleCase(this);
+    }
+}
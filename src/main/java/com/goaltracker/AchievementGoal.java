@@ -0,0 +1,81 @@
+package com.goaltracker;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import net.runelite.api.Client;
+
+/**
+ * A goal completed by a varbit or varp reaching a value, such as an achievement diary tier
+ * or a combat achievement task flag.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class AchievementGoal extends Goal
+{
+    private AchievementType achievementType;
+    private AchievementDiary diary;
+    private AchievementVarType varType;
+    private int varId;
+    // Bit within the var that flags completion, or -1 to compare the whole value
+    private int bit;
+    private int requiredValue;
+
+    public AchievementGoal()
+    {
+        super();
+    }
+
+    public AchievementGoal(String name, String description, AchievementDiary diary, String category)
+    {
+        super(name, description, GoalType.ACHIEVEMENT, 1, category);
+        this.achievementType = AchievementType.DIARY;
+        this.diary = diary;
+        this.varType = AchievementVarType.VARBIT;
+        this.varId = diary.getVarbit();
+        this.bit = -1;
+        this.requiredValue = diary.getCompleteValue();
+    }
+
+    public AchievementGoal(String name, String description, AchievementVarType varType, int varId, int bit,
+                           String category)
+    {
+        super(name, description, GoalType.ACHIEVEMENT, 1, category);
+        this.achievementType = AchievementType.COMBAT_ACHIEVEMENT;
+        this.varType = varType;
+        this.varId = varId;
+        this.bit = bit;
+        this.requiredValue = 1;
+    }
+
+    @Override
+    public void updateProgress(Client client)
+    {
+        if (client == null || varType == null)
+        {
+            return;
+        }
+
+        int value = varType == AchievementVarType.VARBIT ? client.getVarbitValue(varId) : client.getVarpValue(varId);
+        boolean complete = bit >= 0 ? ((value >>> bit) & 1) != 0 : value >= requiredValue;
+        setCurrentProgress(complete ? 1 : 0);
+
+        checkCompletion();
+    }
+
+    public String getFormattedProgress()
+    {
+        return getCurrentProgress() >= getTargetValue() ? "Complete" : "Incomplete";
+    }
+}
+
+enum AchievementType
+{
+    DIARY,
+    COMBAT_ACHIEVEMENT
+}
+
+enum AchievementVarType
+{
+    VARBIT,
+    VARP
+}
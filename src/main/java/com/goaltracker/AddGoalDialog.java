@@ -1,5 +1,6 @@
 package com.goaltracker;
 
+import net.runelite.api.Quest;
 import net.runelite.api.Skill;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
@@ -11,6 +12,8 @@ import java.awt.*;
 import java.awt.event.ItemEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
 
 public class AddGoalDialog extends JDialog
 {
@@ -39,10 +42,35 @@ public class AddGoalDialog extends JDialog
     private final FlatTextField npcIdField = new FlatTextField();
     private final JComboBox<CombatGoalType> combatGoalTypeComboBox = new JComboBox<>(CombatGoalType.values());
 
+    // Quest goal fields
+    private final JComboBox<Quest> questComboBox = new JComboBox<>(Quest.values());
+
+    // Achievement goal fields
+    private final JComboBox<AchievementType> achievementTypeComboBox = new JComboBox<>(AchievementType.values());
+    private final JComboBox<AchievementDiary> diaryComboBox = new JComboBox<>(AchievementDiary.values());
+    private final JComboBox<CombatAchievementTier> combatAchievementTierComboBox = new JComboBox<>(CombatAchievementTier.values());
+    private final JComboBox<CombatAchievementTable.Task> combatAchievementComboBox = new JComboBox<>();
+    // Tasks read from the game cache, empty until logged in, when the var fields are shown instead
+    private final CombatAchievementTable combatAchievements;
+    private final JComboBox<AchievementVarType> achievementVarTypeComboBox = new JComboBox<>(AchievementVarType.values());
+    private final FlatTextField achievementVarIdField = new FlatTextField();
+    private final FlatTextField achievementBitField = new FlatTextField();
+
+    // Wealth goal fields
+    private final FlatTextField wealthItemIdsField = new FlatTextField();
+
+    // Composite goal fields
+    private final JComboBox<CompositeMode> compositeModeComboBox = new JComboBox<>(CompositeMode.values());
+    private final JList<Goal> childGoalList = new JList<>();
+
+    // Prerequisite selection
+    private final JList<Goal> prerequisiteList = new JList<>();
+
     public AddGoalDialog(GoalTrackerPlugin plugin)
     {
         super();
         this.plugin = plugin;
+        this.combatAchievements = plugin.getCombatAchievements();
 
         setTitle("Add New Goal");
         setSize(400, 500);
@@ -96,6 +124,28 @@ public class AddGoalDialog extends JDialog
         contentPanel.add(buttonPanel, BorderLayout.SOUTH);
         add(contentPanel);
 
+        // Existing goals can be chosen as prerequisites or as parts of a composite goal
+        Goal[] existingGoals = plugin.getGoals().toArray(new Goal[0]);
+        initGoalList(prerequisiteList, existingGoals);
+        initGoalList(childGoalList, existingGoals);
+
+        // Diary and combat achievement goals take different fields
+        achievementTypeComboBox.addItemListener(e -> {
+            if (e.getStateChange() == ItemEvent.SELECTED)
+            {
+                updateGoalConfigPanel();
+            }
+        });
+
+        // Combat achievements are picked from the selected tier's tasks
+        combatAchievementTierComboBox.addItemListener(e -> {
+            if (e.getStateChange() == ItemEvent.SELECTED)
+            {
+                updateCombatAchievementTasks();
+            }
+        });
+        updateCombatAchievementTasks();
+
         // Initialize the goal config panel with the default goal type
         updateGoalConfigPanel();
 
@@ -130,12 +180,24 @@ public class AddGoalDialog extends JDialog
                 addCombatGoalFields();
                 break;
             case QUEST:
+                addQuestGoalFields();
+                break;
             case ACHIEVEMENT:
+                addAchievementGoalFields();
+                break;
+            case COMPOSITE:
+                addCompositeGoalFields();
+                break;
+            case WEALTH:
+                addWealthGoalFields();
+                break;
             case OTHER:
                 // Not implemented yet
                 break;
         }
 
+        addPrerequisiteFields();
+
         goalConfigPanel.revalidate();
         goalConfigPanel.repaint();
     }
@@ -227,7 +289,7 @@ public class AddGoalDialog extends JDialog
         panel.setBorder(new EmptyBorder(10, 0, 10, 0));
 
         // NPC Name field
-        JLabel npcNameLabel = new JLabel("NPC Name:");
+        JLabel npcNameLabel = new JLabel("NPC Name (not needed for slayer):");
         npcNameLabel.setFont(FontManager.getRunescapeBoldFont());
         panel.add(npcNameLabel);
         npcNameField.setPreferredSize(new Dimension(100, 25));
@@ -249,6 +311,157 @@ public class AddGoalDialog extends JDialog
         goalConfigPanel.add(panel);
     }
 
+    private void addQuestGoalFields()
+    {
+        JPanel panel = new JPanel();
+        panel.setLayout(new GridLayout(0, 1, 0, 5));
+        panel.setBorder(new EmptyBorder(10, 0, 10, 0));
+
+        // Quest selection
+        JLabel questLabel = new JLabel("Quest:");
+        questLabel.setFont(FontManager.getRunescapeBoldFont());
+        panel.add(questLabel);
+        panel.add(questComboBox);
+
+        goalConfigPanel.add(panel);
+    }
+
+    private void addAchievementGoalFields()
+    {
+        JPanel panel = new JPanel();
+        panel.setLayout(new GridLayout(0, 1, 0, 5));
+        panel.setBorder(new EmptyBorder(10, 0, 10, 0));
+
+        // Achievement type selection
+        JLabel typeLabel = new JLabel("Achievement Type:");
+        typeLabel.setFont(FontManager.getRunescapeBoldFont());
+        panel.add(typeLabel);
+        panel.add(achievementTypeComboBox);
+
+        if (achievementTypeComboBox.getSelectedItem() == AchievementType.DIARY)
+        {
+            // Diary tier selection
+            JLabel diaryLabel = new JLabel("Diary:");
+            diaryLabel.setFont(FontManager.getRunescapeBoldFont());
+            panel.add(diaryLabel);
+            panel.add(diaryComboBox);
+        }
+        else if (!combatAchievements.isEmpty())
+        {
+            JLabel tierLabel = new JLabel("Tier:");
+            tierLabel.setFont(FontManager.getRunescapeBoldFont());
+            panel.add(tierLabel);
+            panel.add(combatAchievementTierComboBox);
+
+            JLabel taskLabel = new JLabel("Task:");
+            taskLabel.setFont(FontManager.getRunescapeBoldFont());
+            panel.add(taskLabel);
+            panel.add(combatAchievementComboBox);
+        }
+        else
+        {
+            // The task list is read from the game once logged in, until then the var is entered directly
+            JLabel loginLabel = new JLabel("Log in to pick from the task list");
+            loginLabel.setFont(FontManager.getRunescapeSmallFont());
+            panel.add(loginLabel);
+
+            // Var holding the combat achievement's completion
+            JLabel varTypeLabel = new JLabel("Var Type:");
+            varTypeLabel.setFont(FontManager.getRunescapeBoldFont());
+            panel.add(varTypeLabel);
+            panel.add(achievementVarTypeComboBox);
+
+            JLabel varIdLabel = new JLabel("Var ID:");
+            varIdLabel.setFont(FontManager.getRunescapeBoldFont());
+            panel.add(varIdLabel);
+            achievementVarIdField.setPreferredSize(new Dimension(100, 25));
+            panel.add(achievementVarIdField);
+
+            JLabel bitLabel = new JLabel("Bit (optional):");
+            bitLabel.setFont(FontManager.getRunescapeBoldFont());
+            panel.add(bitLabel);
+            achievementBitField.setPreferredSize(new Dimension(100, 25));
+            panel.add(achievementBitField);
+        }
+
+        goalConfigPanel.add(panel);
+    }
+
+    private void updateCombatAchievementTasks()
+    {
+        CombatAchievementTier tier = (CombatAchievementTier) combatAchievementTierComboBox.getSelectedItem();
+        combatAchievementComboBox.setModel(new DefaultComboBoxModel<>(
+            combatAchievements.getTasks(tier).toArray(new CombatAchievementTable.Task[0])));
+    }
+
+    private void addWealthGoalFields()
+    {
+        JPanel panel = new JPanel();
+        panel.setLayout(new GridLayout(0, 1, 0, 5));
+        panel.setBorder(new EmptyBorder(10, 0, 10, 0));
+
+        // Container selection, shared with item goals
+        JLabel typeLabel = new JLabel("Counted In:");
+        typeLabel.setFont(FontManager.getRunescapeBoldFont());
+        panel.add(typeLabel);
+        panel.add(itemGoalTypeComboBox);
+
+        // Item IDs field
+        JLabel itemIdsLabel = new JLabel("Item IDs (comma separated, blank for all):");
+        itemIdsLabel.setFont(FontManager.getRunescapeBoldFont());
+        panel.add(itemIdsLabel);
+        wealthItemIdsField.setPreferredSize(new Dimension(100, 25));
+        panel.add(wealthItemIdsField);
+
+        goalConfigPanel.add(panel);
+    }
+
+    private void addCompositeGoalFields()
+    {
+        JPanel panel = new JPanel();
+        panel.setLayout(new BorderLayout(0, 5));
+        panel.setBorder(new EmptyBorder(10, 0, 10, 0));
+
+        // Completion mode selection
+        JPanel modePanel = new JPanel();
+        modePanel.setLayout(new GridLayout(0, 1, 0, 5));
+        JLabel modeLabel = new JLabel("Complete When (N of M uses the target value):");
+        modeLabel.setFont(FontManager.getRunescapeBoldFont());
+        modePanel.add(modeLabel);
+        modePanel.add(compositeModeComboBox);
+        panel.add(modePanel, BorderLayout.NORTH);
+
+        // Child goal selection
+        JPanel childPanel = new JPanel();
+        childPanel.setLayout(new BorderLayout(0, 5));
+        JLabel childLabel = new JLabel("Goals:");
+        childLabel.setFont(FontManager.getRunescapeBoldFont());
+        childPanel.add(childLabel, BorderLayout.NORTH);
+        childPanel.add(new JScrollPane(childGoalList), BorderLayout.CENTER);
+        panel.add(childPanel, BorderLayout.CENTER);
+
+        goalConfigPanel.add(panel);
+    }
+
+    private void addPrerequisiteFields()
+    {
+        if (prerequisiteList.getModel().getSize() == 0)
+        {
+            return;
+        }
+
+        JPanel panel = new JPanel();
+        panel.setLayout(new BorderLayout(0, 5));
+        panel.setBorder(new EmptyBorder(10, 0, 10, 0));
+
+        JLabel prerequisiteLabel = new JLabel("Prerequisites (optional):");
+        prerequisiteLabel.setFont(FontManager.getRunescapeBoldFont());
+        panel.add(prerequisiteLabel, BorderLayout.NORTH);
+        panel.add(new JScrollPane(prerequisiteList), BorderLayout.CENTER);
+
+        goalConfigPanel.add(panel);
+    }
+
     private void addGoal()
     {
         try
@@ -264,26 +477,35 @@ public class AddGoalDialog extends JDialog
             String description = descTextField.getText();
             String category = categoryTextField.getText();
 
-            String targetValueStr = targetValueField.getText();
-            if (targetValueStr == null || targetValueStr.trim().isEmpty())
-            {
-                JOptionPane.showMessageDialog(this, "Target value is required.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+            // Quests and achievements end when finished, composite goals only take a target when N of their goals are required
+            // Wealth targets are parsed as longs with the goal
+            boolean targetRequired = selectedGoalType != GoalType.QUEST && selectedGoalType != GoalType.ACHIEVEMENT
+                && selectedGoalType != GoalType.WEALTH
+                && (selectedGoalType != GoalType.COMPOSITE || compositeModeComboBox.getSelectedItem() == CompositeMode.N_OF_M);
 
-            int targetValue;
-            try
+            int targetValue = 0;
+            if (targetRequired)
             {
-                targetValue = Integer.parseInt(targetValueStr);
-                if (targetValue <= 0)
+                String targetValueStr = targetValueField.getText();
+                if (targetValueStr == null || targetValueStr.trim().isEmpty())
                 {
-                    throw new NumberFormatException("Value must be positive");
+                    JOptionPane.showMessageDialog(this, "Target value is required.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                try
+                {
+                    targetValue = Integer.parseInt(targetValueStr);
+                    if (targetValue <= 0)
+                    {
+                        throw new NumberFormatException("Value must be positive");
+                    }
+                }
+                catch (NumberFormatException e)
+                {
+                    JOptionPane.showMessageDialog(this, "Target value must be a positive number.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
                 }
-            }
-            catch (NumberFormatException e)
-            {
-                JOptionPane.showMessageDialog(this, "Target value must be a positive number.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
             }
 
             // Create goal based on selected type
@@ -321,8 +543,12 @@ public class AddGoalDialog extends JDialog
                     break;
 
                 case COMBAT:
+                    CombatGoalType combatGoalType = (CombatGoalType) combatGoalTypeComboBox.getSelectedItem();
+                    boolean slayerGoal = combatGoalType == CombatGoalType.SLAYER_TASK || combatGoalType == CombatGoalType.SLAYER_TASKS;
+
+                    // Slayer goals follow whatever task is assigned
                     String npcName = npcNameField.getText();
-                    if (npcName == null || npcName.trim().isEmpty())
+                    if (!slayerGoal && (npcName == null || npcName.trim().isEmpty()))
                     {
                         JOptionPane.showMessageDialog(this, "NPC name is required.", "Error", JOptionPane.ERROR_MESSAGE);
                         return;
@@ -343,12 +569,113 @@ public class AddGoalDialog extends JDialog
                         }
                     }
 
-                    CombatGoalType combatGoalType = (CombatGoalType) combatGoalTypeComboBox.getSelectedItem();
                     goal = new CombatGoal(name, description, npcName, npcId, combatGoalType, targetValue, category);
                     break;
 
                 case QUEST:
+                    Quest quest = (Quest) questComboBox.getSelectedItem();
+                    goal = new QuestGoal(name, description, quest, category);
+                    break;
+
                 case ACHIEVEMENT:
+                    if (achievementTypeComboBox.getSelectedItem() == AchievementType.DIARY)
+                    {
+                        AchievementDiary diary = (AchievementDiary) diaryComboBox.getSelectedItem();
+                        goal = new AchievementGoal(name, description, diary, category);
+                        break;
+                    }
+
+                    if (!combatAchievements.isEmpty())
+                    {
+                        CombatAchievementTable.Task task = (CombatAchievementTable.Task) combatAchievementComboBox.getSelectedItem();
+                        if (task == null)
+                        {
+                            JOptionPane.showMessageDialog(this, "Select a combat achievement.", "Error", JOptionPane.ERROR_MESSAGE);
+                            return;
+                        }
+
+                        goal = new AchievementGoal(name, description, AchievementVarType.VARP, task.getVarp(), task.getBit(), category);
+                        break;
+                    }
+
+                    int varId;
+                    int bit = -1;
+                    try
+                    {
+                        varId = Integer.parseInt(achievementVarIdField.getText().trim());
+                        String bitStr = achievementBitField.getText();
+                        if (bitStr != null && !bitStr.trim().isEmpty())
+                        {
+                            bit = Integer.parseInt(bitStr.trim());
+                            if (bit < 0 || bit > 31)
+                            {
+                                throw new NumberFormatException("Bit out of range");
+                            }
+                        }
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        JOptionPane.showMessageDialog(this, "Var ID must be a number and bit must be 0-31.", "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+
+                    AchievementVarType varType = (AchievementVarType) achievementVarTypeComboBox.getSelectedItem();
+                    goal = new AchievementGoal(name, description, varType, varId, bit, category);
+                    break;
+
+                case WEALTH:
+                    long targetWealth;
+                    List<Integer> itemIds = new ArrayList<>();
+                    try
+                    {
+                        targetWealth = Long.parseLong(targetValueField.getText().trim());
+                        if (targetWealth <= 0)
+                        {
+                            throw new NumberFormatException("Value must be positive");
+                        }
+
+                        String itemIdsStr = wealthItemIdsField.getText();
+                        if (itemIdsStr != null && !itemIdsStr.trim().isEmpty())
+                        {
+                            for (String itemIdStr : itemIdsStr.split(","))
+                            {
+                                itemIds.add(Integer.parseInt(itemIdStr.trim()));
+                            }
+                        }
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        JOptionPane.showMessageDialog(this, "Target value must be a positive number of gp and item IDs must be numbers.", "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+
+                    ItemGoalType countedIn = (ItemGoalType) itemGoalTypeComboBox.getSelectedItem();
+                    goal = new WealthGoal(name, description, countedIn, itemIds, targetWealth, category);
+                    break;
+
+                case COMPOSITE:
+                    List<String> childIds = new ArrayList<>();
+                    for (Goal child : childGoalList.getSelectedValuesList())
+                    {
+                        childIds.add(child.getId());
+                    }
+
+                    if (childIds.isEmpty())
+                    {
+                        JOptionPane.showMessageDialog(this, "Select at least one goal.", "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+
+                    if (targetValue > childIds.size())
+                    {
+                        JOptionPane.showMessageDialog(this, "Target value cannot exceed the number of selected goals.", "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+
+                    CompositeMode compositeMode = (CompositeMode) compositeModeComboBox.getSelectedItem();
+                    goal = new CompositeGoal(name, description, childIds, compositeMode, targetValue, category);
+                    break;
+
                 case OTHER:
                     // Not implemented yet
                     JOptionPane.showMessageDialog(this, "This goal type is not implemented yet.", "Not Implemented", JOptionPane.INFORMATION_MESSAGE);
@@ -357,6 +684,13 @@ public class AddGoalDialog extends JDialog
 
             if (goal != null)
             {
+                List<String> prerequisiteIds = new ArrayList<>();
+                for (Goal prerequisite : prerequisiteList.getSelectedValuesList())
+                {
+                    prerequisiteIds.add(prerequisite.getId());
+                }
+                goal.setPrerequisiteIds(prerequisiteIds);
+
                 plugin.addGoal(goal);
                 dispose();
             }
@@ -366,4 +700,19 @@ public class AddGoalDialog extends JDialog
             JOptionPane.showMessageDialog(this, "Error adding goal: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
-}
\ No newline at end of file
+
+    private static void initGoalList(JList<Goal> list, Goal[] goals)
+    {
+        list.setListData(goals);
+        list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        list.setVisibleRowCount(4);
+        list.setCellRenderer(new DefaultListCellRenderer()
+        {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus)
+            {
+                return super.getListCellRendererComponent(list, ((Goal) value).getName(), index, isSelected, cellHasFocus);
+            }
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package com.goaltracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.EnumComposition;
+import net.runelite.api.StructComposition;
+
+/**
+ * Combat achievement tasks by tier, read once from the game cache, with the varp bit that
+ * flags each one complete. The cache lists each tier's tasks in an enum of structs, and a
+ * task's completion is bit (id % 32) of the id / 32-th completion varp.
+ */
+@Slf4j
+class CombatAchievementTable
+{
+    static final CombatAchievementTable EMPTY = new CombatAchievementTable(new EnumMap<>(CombatAchievementTier.class));
+
+    // Struct params of a task
+    private static final int PARAM_ID = 1306;
+    private static final int PARAM_NAME = 1308;
+
+    // Varps holding the completion bits of tasks 0-31, 32-63 and so on
+    private static final int[] COMPLETION_VARPS = {
+        3116, 3117, 3118, 3119, 3120, 3121, 3122, 3123, 3124, 3125,
+        3387, 3718, 3773, 3774, 4204, 4496, 4721, 4722, 4723
+    };
+
+    private final Map<CombatAchievementTier, List<Task>> tasks;
+
+    private CombatAchievementTable(Map<CombatAchievementTier, List<Task>> tasks)
+    {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Read the tasks from the cache, on the client thread
+     */
+    static CombatAchievementTable load(Client client)
+    {
+        Map<CombatAchievementTier, List<Task>> tasks = new EnumMap<>(CombatAchievementTier.class);
+
+        for (CombatAchievementTier tier : CombatAchievementTier.values())
+        {
+            List<Task> tierTasks = new ArrayList<>();
+            EnumComposition tierEnum = client.getEnum(tier.getEnumId());
+            if (tierEnum == null)
+            {
+                log.debug("No task enum for combat achievement tier {}", tier);
+                continue;
+            }
+
+            for (int structId : tierEnum.getIntVals())
+            {
+                StructComposition struct = client.getStructComposition(structId);
+                if (struct == null)
+                {
+                    continue;
+                }
+
+                int id = struct.getIntValue(PARAM_ID);
+                String name = struct.getStringValue(PARAM_NAME);
+                if (id < 0 || name == null || name.isEmpty())
+                {
+                    // The struct's params moved, it cannot be tracked
+                    log.debug("Unreadable combat achievement struct {}", structId);
+                    continue;
+                }
+
+                if (id / 32 >= COMPLETION_VARPS.length)
+                {
+                    // Added after this table, its completion varp is not known
+                    log.debug("No completion varp for combat achievement {}", id);
+                    continue;
+                }
+                tierTasks.add(new Task(id, name, tier));
+            }
+
+            if (!tierTasks.isEmpty())
+            {
+                tierTasks.sort(Comparator.comparing(Task::getName));
+                tasks.put(tier, Collections.unmodifiableList(tierTasks));
+            }
+        }
+
+        // Empty when the ids no longer match the cache, which leaves the var fields in the dialog
+        return tasks.isEmpty() ? EMPTY : new CombatAchievementTable(tasks);
+    }
+
+    boolean isEmpty()
+    {
+        return tasks.isEmpty();
+    }
+
+    List<Task> getTasks(CombatAchievementTier tier)
+    {
+        return tasks.getOrDefault(tier, Collections.emptyList());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Task
+    {
+        private final int id;
+        private final String name;
+        private final CombatAchievementTier tier;
+
+        int getVarp()
+        {
+            return COMPLETION_VARPS[id / 32];
+        }
+
+        int getBit()
+        {
+            return id % 32;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+}
+
+/**
+ * Combat achievement tiers and the cache enum listing each tier's tasks
+ */
+@Getter
+@AllArgsConstructor
+enum CombatAchievementTier
+{
+    EASY(3981),
+    MEDIUM(3982),
+    HARD(3983),
+    ELITE(3984),
+    MASTER(3985),
+    GRANDMASTER(3986);
+
+    private final int enumId;
+}
@@ -5,7 +5,6 @@ import lombok.EqualsAndHashCode;
 import net.runelite.api.Client;
 import net.runelite.api.NPC;
 import net.runelite.api.NPCComposition;
-import net.runelite.api.VarPlayer;
 import net.runelite.api.Varbits;
 
 @Data
@@ -15,8 +14,20 @@ public class CombatGoal extends Goal
     private String npcName;
     private int npcId;
     private CombatGoalType combatGoalType;
+    // Remaining kills on the slayer task when tracking started, -1 until a task is seen
     private int initialKillCount;
 
+    // Kill counts and slayer task changes seen since the last evaluation, applied in updateProgress
+    private transient int reportedKillCount = -1;
+    private transient int pendingKills;
+    private transient int stagedTaskSize = -1;
+    private transient boolean newTaskStaged;
+    private transient int pendingTasks;
+    // A task is only finished once its remaining amount reached zero and the completion message was
+    // seen, in either order, as cancelling a task also sets its remaining amount to zero
+    private transient boolean taskEnded;
+    private transient boolean completionReported;
+
     public CombatGoal()
     {
         super();
@@ -40,45 +51,156 @@ public class CombatGoal extends Goal
             return;
         }
 
-        // For now, we'll just update based on combat level or slayer task
-        // In a real implementation, you would need to track kills via other methods
+        // Progress only moves on events staged since the last evaluation, nothing is polled
         switch (combatGoalType)
         {
             case SLAYER_TASK:
-                int currentAmount = client.getVarpValue(VarPlayer.SLAYER_TASK_SIZE);
-                // Calculate progress as initial task size - current amount
-                if (initialKillCount == -1)
+                // Once reached the goal keeps its progress, later tasks are not counted against it
+                if (!isCompleted())
                 {
-                    // First time checking, so set initial kill count
-                    initialKillCount = getTargetValue() + currentAmount;
+                    updateSlayerTask();
                 }
+                stagedTaskSize = -1;
+                newTaskStaged = false;
+                pendingTasks = 0;
+                break;
 
-                // Task progress is inverse - starts at full amount and decreases
-                setCurrentProgress(initialKillCount - currentAmount);
+            case SLAYER_TASKS:
+                if (pendingTasks > 0)
+                {
+                    setCurrentProgress(getCurrentProgress() + pendingTasks);
+                    pendingTasks = 0;
+                }
                 break;
 
             case BOSS_KILLS:
-                // This would require tracking boss kill count from the collection log
-                // or other sources, which is beyond the scope of this simple example
-                // For a real implementation, you would need to track kills via chat messages
-                // or other indicators
+                // The kill count message reports the total kill count
+                if (reportedKillCount >= 0)
+                {
+                    setCurrentProgress(reportedKillCount);
+                    reportedKillCount = -1;
+                }
                 break;
 
             case MONSTER_KILLS:
-                // Similar to boss kills, would need to track via chat messages
-                // or other indicators
+                // Kills counted since the goal was added
+                if (pendingKills > 0)
+                {
+                    setCurrentProgress(getCurrentProgress() + pendingKills);
+                    pendingKills = 0;
+                }
                 break;
         }
 
         checkCompletion();
     }
 
+    private void updateSlayerTask()
+    {
+        if (pendingTasks > 0 && initialKillCount != -1)
+        {
+            // The tracked task was finished, so all of it was killed, and the next task starts afresh
+            setCurrentProgress(initialKillCount);
+            initialKillCount = -1;
+            setDirty(true);
+            checkCompletion();
+            if (isCompleted())
+            {
+                return;
+            }
+        }
+
+        if (stagedTaskSize > 0)
+        {
+            // A task assigned after the last one ended is new, as is one with more left than the tracked task;
+            // across a logout only the latter can be told
+            if (newTaskStaged || initialKillCount == -1 || stagedTaskSize > initialKillCount - getCurrentProgress())
+            {
+                initialKillCount = stagedTaskSize;
+                setDirty(true);
+            }
+
+            setCurrentProgress(initialKillCount - stagedTaskSize);
+        }
+    }
+
+    /**
+     * Record a change of the remaining slayer task amount, applied on the next evaluation
+     *
+     * @param previous the amount before the change, -1 if not seen since login
+     */
+    public void slayerTaskChanged(int previous, int remaining)
+    {
+        if (remaining > 0)
+        {
+            if (previous == 0)
+            {
+                slayerTaskAssigned();
+            }
+            stagedTaskSize = remaining;
+        }
+        else if (previous > 0)
+        {
+            // Ended by the last kill or by cancelling, the completion message tells which
+            stagedTaskSize = -1;
+            taskEnded = true;
+            countCompletedTask();
+        }
+    }
+
+    /**
+     * Record that a new slayer task was assigned, such as when the task's creature changes
+     */
+    public void slayerTaskAssigned()
+    {
+        newTaskStaged = true;
+        taskEnded = false;
+        completionReported = false;
+    }
+
+    /**
+     * Record the slayer task completion message, applied on the next evaluation
+     */
+    public void slayerTaskCompleted()
+    {
+        completionReported = true;
+        countCompletedTask();
+    }
+
+    private void countCompletedTask()
+    {
+        if (taskEnded && completionReported)
+        {
+            taskEnded = false;
+            completionReported = false;
+            pendingTasks++;
+        }
+    }
+
+    /**
+     * Record a kill count read from chat, applied on the next evaluation
+     */
+    public void reportKillCount(int killCount)
+    {
+        reportedKillCount = killCount;
+    }
+
+    /**
+     * Record kills of the tracked npc, applied on the next evaluation
+     */
+    public void addKills(int kills)
+    {
+        pendingKills += kills;
+    }
+
     public String getFormattedProgress()
     {
         switch (combatGoalType)
         {
             case SLAYER_TASK:
                 return getCurrentProgress() + "/" + getTargetValue() + " killed";
+            case SLAYER_TASKS:
+                return getCurrentProgress() + "/" + getTargetValue() + " tasks";
             case BOSS_KILLS:
                 return getCurrentProgress() + "/" + getTargetValue() + " boss kills";
             case MONSTER_KILLS:
@@ -93,5 +215,6 @@ enum CombatGoalType
 {
     SLAYER_TASK,
     BOSS_KILLS,
-    MONSTER_KILLS
+    MONSTER_KILLS,
+    SLAYER_TASKS
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.goaltracker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import net.runelite.api.Client;
+
+/**
+ * A goal made of other goals, complete when all, any, or a given number of them are.
+ * Its progress is the number of completed children, kept up to date one child change at a time.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CompositeGoal extends Goal
+{
+    private List<String> childIds;
+    private CompositeMode mode;
+    private int requiredCount;
+
+    // Running aggregates over the children, rebuilt on load
+    private transient Map<String, Integer> childPercentages = new HashMap<>();
+    private transient Map<String, Boolean> childCompleted = new HashMap<>();
+    private transient long percentageSum;
+    private transient int completedCount;
+
+    public CompositeGoal()
+    {
+        super();
+    }
+
+    public CompositeGoal(String name, String description, List<String> childIds, CompositeMode mode,
+                         int requiredCount, String category)
+    {
+        super(name, description, GoalType.COMPOSITE, requiredTarget(mode, childIds.size(), requiredCount), category);
+        this.childIds = new ArrayList<>(childIds);
+        this.mode = mode;
+        this.requiredCount = requiredCount;
+    }
+
+    @Override
+    public void updateProgress(Client client)
+    {
+        // Progress is driven by the children through childChanged
+    }
+
+    /**
+     * Recompute the aggregates from every child, after loading or when the children change
+     */
+    public void rebuildAggregates(Map<String, Goal> goalsById)
+    {
+        if (childIds == null)
+        {
+            childIds = new ArrayList<>();
+        }
+        if (mode == null)
+        {
+            mode = CompositeMode.ALL;
+        }
+
+        childPercentages = new HashMap<>();
+        childCompleted = new HashMap<>();
+        percentageSum = 0;
+        completedCount = 0;
+
+        for (String childId : childIds)
+        {
+            Goal child = goalsById.get(childId);
+            if (child != null)
+            {
+                childChanged(child);
+            }
+        }
+
+        setTargetValue(requiredTarget(mode, childIds.size(), requiredCount));
+        applyAggregates();
+    }
+
+    /**
+     * Fold one child's new state into the aggregates in O(1)
+     *
+     * @return whether this goal's progress or status changed
+     */
+    public boolean childChanged(Goal child)
+    {
+        int previousProgress = getCurrentProgress();
+        GoalStatus previousStatus = getStatus();
+
+        Integer oldPercentage = childPercentages.put(child.getId(), child.getProgressPercentage());
+        percentageSum += child.getProgressPercentage() - (oldPercentage == null ? 0 : oldPercentage);
+
+        Boolean wasCompleted = childCompleted.put(child.getId(), child.isCompleted());
+        if (child.isCompleted() && !Boolean.TRUE.equals(wasCompleted))
+        {
+            completedCount++;
+        }
+        else if (!child.isCompleted() && Boolean.TRUE.equals(wasCompleted))
+        {
+            completedCount--;
+        }
+
+        applyAggregates();
+        return getCurrentProgress() != previousProgress || getStatus() != previousStatus;
+    }
+
+    /**
+     * Average progress of the children, 0-100
+     */
+    public int getAverageChildPercentage()
+    {
+        return childIds == null || childIds.isEmpty() ? 0 : (int) (percentageSum / childIds.size());
+    }
+
+    public String getFormattedProgress()
+    {
+        String progress = getCurrentProgress() + "/" + getTargetValue() + " complete";
+        return mode == CompositeMode.ALL ? progress + ", avg " + getAverageChildPercentage() + "%" : progress;
+    }
+
+    private void applyAggregates()
+    {
+        setCurrentProgress(Math.min(completedCount, getTargetValue()));
+        checkCompletion();
+
+        // Unlike other goals a composite can fall back, when a child is removed, added or un-completes
+        if (isCompleted() && getCurrentProgress() < getTargetValue())
+        {
+            setStatus(GoalStatus.IN_PROGRESS);
+            setCompletionDate(null);
+            setAcknowledged(false);
+        }
+    }
+
+    /**
+     * Number of completed children needed, at least one so a composite whose children were all
+     * removed, or that requires none, stays incomplete rather than completing on the spot
+     */
+    private static int requiredTarget(CompositeMode mode, int childCount, int requiredCount)
+    {
+        switch (mode)
+        {
+            case ANY:
+                return 1;
+            case N_OF_M:
+                return Math.max(1, Math.min(requiredCount, childCount));
+            case ALL:
+            default:
+                return Math.max(1, childCount);
+        }
+    }
+}
+
+enum CompositeMode
+{
+    ALL,
+    ANY,
+    N_OF_M
+}
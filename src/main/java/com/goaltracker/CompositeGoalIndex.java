@@ -0,0 +1,106 @@
+package com.goaltracker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks which composite goals contain which goals, so a child's change is pushed to its
+ * parents, and on up through nested composites, without re-summing any children.
+ */
+class CompositeGoalIndex
+{
+    // Child goal id to the composites containing it
+    private final Map<String, List<CompositeGoal>> parents = new HashMap<>();
+
+    /**
+     * Rebuild the index and every composite's aggregates after goals were added, removed or loaded
+     */
+    public void rebuild(List<Goal> goals)
+    {
+        parents.clear();
+
+        Map<String, Goal> goalsById = new HashMap<>();
+        for (Goal goal : goals)
+        {
+            goalsById.put(goal.getId(), goal);
+        }
+
+        List<CompositeGoal> composites = new ArrayList<>();
+        for (Goal goal : goals)
+        {
+            if (goal instanceof CompositeGoal)
+            {
+                CompositeGoal composite = (CompositeGoal) goal;
+                composite.rebuildAggregates(goalsById);
+                composites.add(composite);
+                for (String childId : composite.getChildIds())
+                {
+                    parents.computeIfAbsent(childId, k -> new ArrayList<>()).add(composite);
+                }
+            }
+        }
+
+        // Nested composites settle after a pass per nesting level
+        for (int pass = 0; pass < composites.size(); pass++)
+        {
+            boolean changed = false;
+            for (CompositeGoal composite : composites)
+            {
+                int progress = composite.getCurrentProgress();
+                GoalStatus status = composite.getStatus();
+                composite.rebuildAggregates(goalsById);
+                changed |= progress != composite.getCurrentProgress() || status != composite.getStatus();
+            }
+
+            if (!changed)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Push a goal's change to the composites containing it
+     *
+     * @return the composites whose progress or status changed
+     */
+    public List<CompositeGoal> goalChanged(Goal goal)
+    {
+        if (!parents.containsKey(goal.getId()))
+        {
+            return Collections.emptyList();
+        }
+
+        List<CompositeGoal> changed = new ArrayList<>();
+        Deque<Goal> queue = new ArrayDeque<>();
+        queue.add(goal);
+
+        while (!queue.isEmpty())
+        {
+            Goal child = queue.poll();
+            for (CompositeGoal parent : parents.getOrDefault(child.getId(), Collections.emptyList()))
+            {
+                if (parent.childChanged(child) && !changed.contains(parent))
+                {
+                    changed.add(parent);
+                    queue.add(parent);
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * The composites directly containing a goal
+     */
+    public List<CompositeGoal> getParents(String goalId)
+    {
+        return parents.getOrDefault(goalId, Collections.emptyList());
+    }
+}
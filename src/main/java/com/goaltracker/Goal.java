@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import net.runelite.api.Client;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Data
@@ -24,6 +26,17 @@ public abstract class Goal
     private int currentProgress;
     private int targetValue;
     private boolean acknowledged;
+    // Ids of goals that must be completed before this one
+    private List<String> prerequisiteIds;
+    // Set when a persisted field changes, cleared once the goal has been serialized for saving.
+    // Goals are changed and serialized on the client thread, volatile only so a goal loaded elsewhere is seen clean
+    private transient volatile boolean dirty;
+    // Allocated once the goal's progress is first recorded
+    private transient ProgressHistory history;
+    // Allocated once the goal's first rate sample is recorded
+    private transient RateEstimator rate;
+    // Whether a prerequisite is still incomplete, maintained by GoalGraph
+    private transient boolean locked;
 
     public Goal(String name, String description, GoalType type, int targetValue, String category)
     {
@@ -39,6 +52,89 @@ public abstract class Goal
         this.acknowledged = false;
     }
 
+    public void setCurrentProgress(int currentProgress)
+    {
+        if (this.currentProgress != currentProgress)
+        {
+            this.currentProgress = currentProgress;
+            dirty = true;
+        }
+    }
+
+    public void setStatus(GoalStatus status)
+    {
+        if (this.status != status)
+        {
+            this.status = status;
+            dirty = true;
+        }
+    }
+
+    public void setCompletionDate(Instant completionDate)
+    {
+        if (!Objects.equals(this.completionDate, completionDate))
+        {
+            this.completionDate = completionDate;
+            dirty = true;
+        }
+    }
+
+    public void setAcknowledged(boolean acknowledged)
+    {
+        if (this.acknowledged != acknowledged)
+        {
+            this.acknowledged = acknowledged;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Add the current progress to the goal's history
+     */
+    public void recordProgress(long time)
+    {
+        if (history == null)
+        {
+            history = new ProgressHistory();
+        }
+
+        history.record(time, currentProgress);
+    }
+
+    /**
+     * Feed the value the goal's rate is measured in, such as experience or an item count
+     */
+    public void recordRate(long time, long value)
+    {
+        if (rate == null)
+        {
+            rate = new RateEstimator();
+        }
+
+        rate.record(time, value);
+    }
+
+    /**
+     * Move the rate's baseline to a value without counting the change as progress
+     */
+    public void resetRate(long time, long value)
+    {
+        if (rate == null)
+        {
+            rate = new RateEstimator();
+        }
+
+        rate.reset(time, value);
+    }
+
+    /**
+     * Amount still needed, in the units passed to {@link #recordRate}, or -1 if unknown
+     */
+    protected long getRemainingAmount()
+    {
+        return Math.max(0, (long) targetValue - currentProgress);
+    }
+
     /**
      * Update the goal's progress based on client data
      */
@@ -75,6 +171,7 @@ public abstract class Goal
         {
             status = GoalStatus.COMPLETED;
             completionDate = Instant.now();
+            dirty = true;
         }
     }
 }
@@ -93,5 +190,7 @@ enum GoalType
     ITEM,
     ACHIEVEMENT,
     COMBAT,
-    OTHER
+    OTHER,
+    COMPOSITE,
+    WEALTH
 }
\ No newline at end of file
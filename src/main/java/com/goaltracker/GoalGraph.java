@@ -0,0 +1,204 @@
+package com.goaltracker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prerequisite graph between goals. A goal is locked while any of its prerequisites is
+ * incomplete or itself locked. When a goal changes, only the goals downstream of it are
+ * re-evaluated, in topological order, and propagation stops where lock states don't change.
+ */
+@Slf4j
+class GoalGraph
+{
+    private final Map<String, Goal> goalsById = new HashMap<>();
+    // Goal id to ids of the goals that require it
+    private final Map<String, List<String>> dependents = new HashMap<>();
+    // Position of each goal in a topological order of the graph
+    private final Map<String, Integer> topologicalIndex = new HashMap<>();
+    // Goals on or behind a prerequisite cycle, whose prerequisites among each other are ignored
+    private final Set<String> cyclic = new HashSet<>();
+
+    /**
+     * Rebuild the graph from scratch after goals were added, removed or loaded
+     */
+    public void rebuild(List<Goal> goals)
+    {
+        goalsById.clear();
+        dependents.clear();
+        topologicalIndex.clear();
+        cyclic.clear();
+
+        for (Goal goal : goals)
+        {
+            goalsById.put(goal.getId(), goal);
+        }
+
+        Map<String, Integer> inDegree = new HashMap<>();
+        for (Goal goal : goals)
+        {
+            inDegree.putIfAbsent(goal.getId(), 0);
+            for (String prerequisiteId : prerequisitesOf(goal))
+            {
+                if (goalsById.containsKey(prerequisiteId))
+                {
+                    dependents.computeIfAbsent(prerequisiteId, k -> new ArrayList<>()).add(goal.getId());
+                    inDegree.merge(goal.getId(), 1, Integer::sum);
+                }
+            }
+        }
+
+        // Kahn's algorithm, goals left over are part of a cycle
+        Deque<String> ready = new ArrayDeque<>();
+        for (Map.Entry<String, Integer> entry : inDegree.entrySet())
+        {
+            if (entry.getValue() == 0)
+            {
+                ready.add(entry.getKey());
+            }
+        }
+
+        while (!ready.isEmpty())
+        {
+            String id = ready.poll();
+            topologicalIndex.put(id, topologicalIndex.size());
+            for (String dependent : dependents.getOrDefault(id, Collections.emptyList()))
+            {
+                if (inDegree.merge(dependent, -1, Integer::sum) == 0)
+                {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        for (Goal goal : goals)
+        {
+            if (!topologicalIndex.containsKey(goal.getId()))
+            {
+                log.warn("Goal {} has cyclic prerequisites, ignoring them", goal.getName());
+                topologicalIndex.put(goal.getId(), topologicalIndex.size());
+                cyclic.add(goal.getId());
+            }
+        }
+
+        // Evaluate every goal in order so prerequisites are settled first
+        List<Goal> ordered = new ArrayList<>(goals);
+        ordered.sort((a, b) -> Integer.compare(topologicalIndex.get(a.getId()), topologicalIndex.get(b.getId())));
+        for (Goal goal : ordered)
+        {
+            goal.setLocked(computeLocked(goal));
+        }
+    }
+
+    /**
+     * Re-evaluate the goals downstream of a changed goal
+     *
+     * @return the goals whose locked state changed
+     */
+    public List<Goal> goalChanged(Goal goal)
+    {
+        List<String> direct = dependents.get(goal.getId());
+        if (direct == null || direct.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        List<Goal> changed = new ArrayList<>();
+        PriorityQueue<String> queue = new PriorityQueue<>((a, b) -> Integer.compare(topologicalIndex.get(a), topologicalIndex.get(b)));
+        queue.addAll(direct);
+
+        while (!queue.isEmpty())
+        {
+            String id = queue.poll();
+            // A goal reachable along several paths is queued more than once
+            while (id.equals(queue.peek()))
+            {
+                queue.poll();
+            }
+
+            Goal dependent = goalsById.get(id);
+            if (dependent == null)
+            {
+                continue;
+            }
+
+            boolean locked = computeLocked(dependent);
+            if (locked != dependent.isLocked())
+            {
+                dependent.setLocked(locked);
+                changed.add(dependent);
+                queue.addAll(dependents.getOrDefault(id, Collections.emptyList()));
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * The goal with the given id as of the last rebuild, or null
+     */
+    public Goal getGoal(String goalId)
+    {
+        return goalsById.get(goalId);
+    }
+
+    /**
+     * Ids of the goals that directly require the given goal
+     */
+    public List<String> getDependents(String goalId)
+    {
+        return dependents.getOrDefault(goalId, Collections.emptyList());
+    }
+
+    /**
+     * The incomplete or locked prerequisites holding a goal back
+     */
+    public List<Goal> getBlockingPrerequisites(Goal goal)
+    {
+        List<Goal> blocking = new ArrayList<>();
+        for (String prerequisiteId : prerequisitesOf(goal))
+        {
+            Goal prerequisite = goalsById.get(prerequisiteId);
+            if (prerequisite != null && (!prerequisite.isCompleted() || prerequisite.isLocked()))
+            {
+                blocking.add(prerequisite);
+            }
+        }
+        return blocking;
+    }
+
+    private boolean computeLocked(Goal goal)
+    {
+        boolean goalCyclic = cyclic.contains(goal.getId());
+        for (String prerequisiteId : prerequisitesOf(goal))
+        {
+            Goal prerequisite = goalsById.get(prerequisiteId);
+            // Prerequisites that were deleted no longer hold anything back
+            if (prerequisite == null || goalCyclic && cyclic.contains(prerequisiteId))
+            {
+                continue;
+            }
+
+            if (!prerequisite.isCompleted() || prerequisite.isLocked())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static List<String> prerequisitesOf(Goal goal)
+    {
+        return goal.getPrerequisiteIds() == null ? Collections.emptyList() : goal.getPrerequisiteIds();
+    }
+}
@@ -0,0 +1,70 @@
+package com.goaltracker;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.ListCellRenderer;
+import javax.swing.border.EmptyBorder;
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.ui.FontManager;
+import net.runelite.client.ui.PluginPanel;
+import net.runelite.client.ui.components.ProgressBar;
+
+/**
+ * Paints every row of the compact goal list with one shared set of components,
+ * so large goal sets cost nothing beyond the rows on screen.
+ */
+class GoalListRenderer extends JPanel implements ListCellRenderer<Goal> {
+    static final int ROW_HEIGHT = 42;
+
+    private final JPanel statusIndicator = new JPanel();
+    private final JLabel nameLabel = new JLabel();
+    private final ProgressBar progressBar = new ProgressBar();
+    private final JLabel progressLabel = new JLabel();
+
+    GoalListRenderer() {
+        setLayout(new BorderLayout(5, 0));
+        setBorder(new EmptyBorder(2, 0, 2, 0));
+
+        statusIndicator.setPreferredSize(new Dimension(5, 0));
+        add(statusIndicator, BorderLayout.WEST);
+
+        JPanel contentPanel = new JPanel(new BorderLayout(0, 2));
+        contentPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        contentPanel.setBorder(new EmptyBorder(2, 5, 2, 5));
+
+        JPanel header = new JPanel(new BorderLayout(5, 0));
+        header.setOpaque(false);
+        nameLabel.setFont(FontManager.getRunescapeBoldFont());
+        progressLabel.setFont(FontManager.getRunescapeSmallFont());
+        header.add(nameLabel, BorderLayout.CENTER);
+        header.add(progressLabel, BorderLayout.EAST);
+
+        progressBar.setPreferredSize(new Dimension(PluginPanel.PANEL_WIDTH - 40, 12));
+
+        contentPanel.add(header, BorderLayout.NORTH);
+        contentPanel.add(progressBar, BorderLayout.SOUTH);
+        add(contentPanel, BorderLayout.CENTER);
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends Goal> list, Goal goal, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        Color color = GoalTrackerPanel.statusColor(goal);
+        statusIndicator.setBackground(color);
+        progressBar.setForeground(color);
+        progressBar.setMaximumValue(goal.getTargetValue());
+        progressBar.setValue(goal.getCurrentProgress());
+
+        nameLabel.setText(goal.getName());
+        progressLabel.setText(goal.getProgressPercentage() + "%");
+        setToolTipText(GoalTrackerPanel.formatProgress(goal));
+
+        setBackground(isSelected ? ColorScheme.DARK_GRAY_HOVER_COLOR : list.getBackground());
+        return this;
+    }
+}
@@ -0,0 +1,155 @@
+package com.goaltracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the goal list for the panel. Built on the client thread whenever goals are
+ * added or removed or a goal's lock may have changed, so the event dispatch thread never walks
+ * lists or the goal graph while the client thread changes them. The goals themselves are shared,
+ * their progress is read as it is at the time, but their rates and histories are copied, since
+ * those are written sample by sample.
+ */
+final class GoalListSnapshot
+{
+    static final GoalListSnapshot EMPTY = new GoalListSnapshot(Collections.emptyList(),
+        new EnumMap<>(GoalType.class), Collections.emptyMap(), new IdentityHashMap<>());
+
+    private final List<Goal> goals;
+    private final Map<GoalType, List<Goal>> goalsByCategory;
+    // Names of the prerequisites holding back each locked goal, by goal id
+    private final Map<String, List<String>> blockingPrerequisites;
+    // Copies of each goal's rate and history, by goal
+    private final Map<Goal, Progress> progress;
+
+    private GoalListSnapshot(List<Goal> goals, Map<GoalType, List<Goal>> goalsByCategory,
+        Map<String, List<String>> blockingPrerequisites, Map<Goal, Progress> progress)
+    {
+        this.goals = goals;
+        this.goalsByCategory = goalsByCategory;
+        this.blockingPrerequisites = blockingPrerequisites;
+        this.progress = progress;
+    }
+
+    /**
+     * Copy the goal list, on the thread that changes it, keeping the progress copies of goals
+     * already in the previous snapshot
+     */
+    static GoalListSnapshot of(List<Goal> goals, Map<GoalType, List<Goal>> goalsByCategory, GoalGraph goalGraph,
+        GoalListSnapshot previous)
+    {
+        Map<GoalType, List<Goal>> categories = new EnumMap<>(GoalType.class);
+        for (Map.Entry<GoalType, List<Goal>> entry : goalsByCategory.entrySet())
+        {
+            if (!entry.getValue().isEmpty())
+            {
+                categories.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+            }
+        }
+
+        Map<String, List<String>> blocking = new HashMap<>();
+        Map<Goal, Progress> progress = new IdentityHashMap<>(goals.size());
+        for (Goal goal : goals)
+        {
+            if (goal.isLocked())
+            {
+                List<String> names = new ArrayList<>();
+                for (Goal prerequisite : goalGraph.getBlockingPrerequisites(goal))
+                {
+                    names.add(prerequisite.getName());
+                }
+                blocking.put(goal.getId(), names);
+            }
+
+            Progress previousProgress = previous.progress.get(goal);
+            progress.put(goal, previousProgress != null ? previousProgress : new Progress(goal));
+        }
+
+        return new GoalListSnapshot(Collections.unmodifiableList(new ArrayList<>(goals)), categories, blocking, progress);
+    }
+
+    /**
+     * The same goal list with the progress of changed goals copied again, on the thread that changes them
+     */
+    GoalListSnapshot withProgress(Collection<Goal> changedGoals)
+    {
+        Map<Goal, Progress> updated = new IdentityHashMap<>(progress);
+        for (Goal goal : changedGoals)
+        {
+            if (updated.containsKey(goal))
+            {
+                updated.put(goal, new Progress(goal));
+            }
+        }
+        return new GoalListSnapshot(goals, goalsByCategory, blockingPrerequisites, updated);
+    }
+
+    List<Goal> getGoals()
+    {
+        return goals;
+    }
+
+    List<Goal> getGoals(GoalType category)
+    {
+        return goalsByCategory.getOrDefault(category, Collections.emptyList());
+    }
+
+    List<String> getBlockingPrerequisites(Goal goal)
+    {
+        return blockingPrerequisites.getOrDefault(goal.getId(), Collections.emptyList());
+    }
+
+    /**
+     * The goal's rate and history as of its last change, or null if it is not in this snapshot
+     */
+    Progress getProgress(Goal goal)
+    {
+        return progress.get(goal);
+    }
+
+    /**
+     * A goal's rate and history, copied so the panel can read them at any time, such as to let
+     * the rate decay while the goal sits idle
+     */
+    static final class Progress
+    {
+        // Null when no rate is known or the goal is completed
+        private final RateEstimator rate;
+        private final long remaining;
+        private final ProgressHistory history;
+
+        private Progress(Goal goal)
+        {
+            RateEstimator goalRate = goal.getRate();
+            rate = goalRate == null || !goalRate.hasSamples() || goal.isCompleted() ? null : new RateEstimator(goalRate);
+            remaining = goal.getRemainingAmount();
+            history = goal.getHistory() == null ? null : new ProgressHistory(goal.getHistory());
+        }
+
+        /**
+         * Estimate the time until the goal is reached at its rate as of now
+         *
+         * @return milliseconds, or -1 if unknown
+         */
+        long estimateTimeRemaining(long now)
+        {
+            return rate == null || remaining < 0 ? -1 : rate.estimateTime(remaining, now);
+        }
+
+        double getRatePerHour(long now)
+        {
+            return rate == null ? 0 : rate.getRatePerHour(now);
+        }
+
+        ProgressHistory getHistory()
+        {
+            return history;
+        }
+    }
+}
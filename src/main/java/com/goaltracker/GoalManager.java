@@ -2,75 +2,350 @@ package com.goaltracker;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.config.ConfigManager;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class GoalManager
 {
+    // Goals were originally stored as a single array under this key
     private static final String GOALS_KEY = "goals";
+    private static final String INDEX_KEY = "goalIndex";
+    private static final String GOAL_KEY_PREFIX = "goal.";
+    // Generation of the binary snapshot that matches the stored goals
+    private static final String SNAPSHOT_KEY = "snapshotGeneration";
+    // How long mutations are collected before they are written
+    private static final long SAVE_DELAY_MS = 2000;
+    // How long the snapshot may lag behind the config while goals keep changing, unless a save asks for it now
+    private static final long SNAPSHOT_INTERVAL_MS = 10 * 60 * 1000;
+
     private final Gson gson;
+    private final ScheduledExecutorService executor;
+    // RS profile the goals are stored under, or null for the goals stored before goals were kept per profile
+    private final String profileKey;
+    // Whether the last load moved the goals stored before profiles into this profile
+    private boolean migrated;
+
+    // Goal changes serialized but not yet written, and the write scheduled for them, guarded by this
+    private PendingSave pendingSave;
+    private ScheduledFuture<?> saveFuture;
+    // Held while writing so flush() waits for a write already in progress
+    private final Object writeLock = new Object();
+
+    // Goal ids as last serialized, used to only serialize what changed, guarded by this
+    private List<String> savedIndex = new ArrayList<>();
+    private Set<String> savedIds = new HashSet<>();
+    // Stored goals that could not be read, such as ones of a type added by a newer version. Kept in the
+    // index and never overwritten or removed, guarded by this
+    private List<String> unreadableIds = new ArrayList<>();
+
+    private volatile Path snapshotFile;
+    // Whether a snapshot was encoded since the goals last changed, and when, guarded by this
+    private boolean snapshotCurrent;
+    private long snapshotEncodedMillis;
+    // The snapshot file last encoded for or read, cleared if writing it fails so it is encoded again
+    private volatile Path encodedSnapshotFile;
+    // Whether the config holds a snapshot generation, guarded by writeLock
+    private boolean snapshotStamped;
 
-    public GoalManager()
+    public GoalManager(ScheduledExecutorService executor, String profileKey)
     {
+        this.executor = executor;
+        this.profileKey = profileKey;
+
         // Set up a custom Gson instance that can handle polymorphic Goal objects
         GsonBuilder builder = new GsonBuilder();
 
-        // Register type adapter for the Goal class
-        builder.registerTypeAdapter(Goal.class, new GoalTypeAdapter());
+        // Register type adapters for the Goal class and its Instant fields
+        builder.registerTypeAdapterFactory(new GoalTypeAdapterFactory());
+        builder.registerTypeAdapter(Instant.class, new InstantTypeAdapter().nullSafe());
 
         // Create the Gson instance
         gson = builder.create();
     }
 
+    /**
+     * Write the goals that changed since the last save, each under its own key, and the index of goal ids,
+     * on the calling thread
+     */
     public void saveGoals(List<Goal> goals, ConfigManager configManager, String configGroup)
     {
+        synchronized (this)
+        {
+            stage(goals, configManager, configGroup, false);
+        }
+        flush();
+    }
+
+    /**
+     * Serialize the goals that changed since the last save and write them after a short delay on the executor.
+     * Goals are serialized on the calling thread, which must be the thread that changes them, so the executor
+     * never reads a goal while it is being updated. Saves requested before the write are merged.
+     */
+    public void saveGoalsLater(List<Goal> goals, ConfigManager configManager, String configGroup)
+    {
+        saveGoalsLater(goals, configManager, configGroup, false);
+    }
+
+    /**
+     * @param snapshotNow whether to bring the snapshot up to date now rather than once the snapshot interval
+     *                    has passed, for a last save before the goals are put away
+     */
+    public void saveGoalsLater(List<Goal> goals, ConfigManager configManager, String configGroup, boolean snapshotNow)
+    {
+        synchronized (this)
+        {
+            stage(goals, configManager, configGroup, snapshotNow);
+            if (pendingSave != null && saveFuture == null)
+            {
+                saveFuture = executor.schedule(this::flush, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Serialize what changed into the pending save, merging it with one not yet written
+     */
+    private void stage(List<Goal> goals, ConfigManager configManager, String configGroup, boolean snapshotNow)
+    {
+        PendingSave save = pendingSave != null ? pendingSave : new PendingSave();
+        save.configManager = configManager;
+        save.configGroup = configGroup;
+
         try
         {
-            String json = gson.toJson(goals);
-            configManager.setConfiguration(configGroup, GOALS_KEY, json);
+            boolean changed = false;
+            List<String> ids = new ArrayList<>(goals.size());
+            for (Goal goal : goals)
+            {
+                ids.add(goal.getId());
+
+                if (goal.isDirty() || !savedIds.contains(goal.getId()))
+                {
+                    changed = true;
+                    goal.setDirty(false);
+                    save.goalJson.put(goal.getId(), gson.toJson(goal, Goal.class));
+                    save.removedIds.remove(goal.getId());
+                }
+            }
+
+            ids.addAll(unreadableIds);
+            Set<String> idSet = new HashSet<>(ids);
+            for (String id : savedIds)
+            {
+                if (!idSet.contains(id))
+                {
+                    changed = true;
+                    save.goalJson.remove(id);
+                    save.removedIds.add(id);
+                }
+            }
+            savedIds = idSet;
+
+            if (!ids.equals(savedIndex))
+            {
+                changed = true;
+                save.index = gson.toJson(ids);
+                savedIndex = ids;
+            }
+
+            if (changed)
+            {
+                // A snapshot waiting to be written no longer matches the goals
+                save.changed = true;
+                save.snapshot = null;
+                snapshotCurrent = false;
+            }
+
+            // A snapshot lagging behind the config is only rewritten once in a while, a newly enabled one straight away
+            Path snapshot = snapshotFile;
+            long now = System.currentTimeMillis();
+            boolean newSnapshot = snapshot != null && !snapshot.equals(encodedSnapshotFile);
+            if (snapshot != null && (newSnapshot || !snapshotCurrent
+                && (snapshotNow || now - snapshotEncodedMillis >= SNAPSHOT_INTERVAL_MS)))
+            {
+                save.snapshotFile = snapshot;
+                save.generation = ThreadLocalRandom.current().nextLong();
+                save.snapshot = GoalSnapshotCodec.encode(save.generation, goals);
+                snapshotCurrent = true;
+                snapshotEncodedMillis = now;
+                encodedSnapshotFile = snapshot;
+            }
         }
         catch (Exception e)
         {
             log.error("Error saving goals", e);
         }
+
+        if (save.changed || save.snapshot != null)
+        {
+            pendingSave = save;
+        }
     }
 
-    public List<Goal> loadGoals(ConfigManager configManager, String configGroup)
+    /**
+     * Use a binary snapshot file as a fast path for loading goals, or null to only use the config.
+     * The config remains the primary store, the snapshot is only read if it was written after the last config change.
+     * The snapshot is rewritten at most every few minutes while goals keep changing, and on a save made with snapshotNow.
+     */
+    public void setSnapshotFile(Path snapshotFile)
     {
-        List<Goal> goals = new ArrayList<>();
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Write any pending save now, on the calling thread
+     */
+    public void flush()
+    {
+        synchronized (writeLock)
+        {
+            PendingSave save;
+            synchronized (this)
+            {
+                save = pendingSave;
+                pendingSave = null;
+                if (saveFuture != null)
+                {
+                    saveFuture.cancel(false);
+                    saveFuture = null;
+                }
+            }
+
+            if (save != null)
+            {
+                write(save);
+            }
+        }
+    }
+
+    private void write(PendingSave save)
+    {
+        ConfigManager configManager = save.configManager;
+        String configGroup = save.configGroup;
 
         try
         {
-            String json = configManager.getConfiguration(configGroup, GOALS_KEY);
+            if (save.changed && snapshotStamped)
+            {
+                // The snapshot no longer matches the stored goals, loading uses the config until it is written again
+                unsetConfiguration(configManager, configGroup, SNAPSHOT_KEY);
+                snapshotStamped = false;
+            }
 
-            if (json == null || json.isEmpty())
+            for (Map.Entry<String, String> entry : save.goalJson.entrySet())
             {
-                return goals;
+                setConfiguration(configManager, configGroup, GOAL_KEY_PREFIX + entry.getKey(), entry.getValue());
+            }
+            for (String id : save.removedIds)
+            {
+                unsetConfiguration(configManager, configGroup, GOAL_KEY_PREFIX + id);
+            }
+            if (save.index != null)
+            {
+                setConfiguration(configManager, configGroup, INDEX_KEY, save.index);
             }
 
-            // Parse the JSON to an array of Goal objects
-            Goal[] loadedGoals = gson.fromJson(json, Goal[].class);
+            if (save.snapshot != null)
+            {
+                GoalSnapshotCodec.writeFile(save.snapshotFile, save.snapshot);
+                setConfiguration(configManager, configGroup, SNAPSHOT_KEY, Long.toString(save.generation));
+                snapshotStamped = true;
+            }
+        }
+        catch (IOException e)
+        {
+            log.warn("Error writing goal snapshot", e);
+            encodedSnapshotFile = null;
+        }
+        catch (Exception e)
+        {
+            log.error("Error saving goals", e);
+        }
+    }
 
-            // Add each goal to the list
-            for (Goal goal : loadedGoals)
+    public List<Goal> loadGoals(ConfigManager configManager, String configGroup)
+    {
+        // Loading resets what the next save compares against
+        synchronized (writeLock)
+        {
+            synchronized (this)
             {
-                if (goal != null)
+                return load(configManager, configGroup);
+            }
+        }
+    }
+
+    private List<Goal> load(ConfigManager configManager, String configGroup)
+    {
+        List<Goal> goals = new ArrayList<>();
+        savedIndex = new ArrayList<>();
+        savedIds = new HashSet<>();
+        unreadableIds = new ArrayList<>();
+        migrated = false;
+
+        try
+        {
+            String stamp = getConfiguration(configManager, configGroup, SNAPSHOT_KEY);
+            snapshotStamped = stamp != null;
+            snapshotCurrent = false;
+
+            List<Goal> snapshotGoals = loadSnapshot(stamp);
+            if (snapshotGoals != null)
+            {
+                for (Goal goal : snapshotGoals)
                 {
                     goals.add(goal);
+                    savedIndex.add(goal.getId());
+                    savedIds.add(goal.getId());
+                }
+
+                // Goals the snapshot could not hold, or that could not be read, are only in the config
+                String index = getConfiguration(configManager, configGroup, INDEX_KEY);
+                if (index != null && !index.isEmpty())
+                {
+                    for (String id : gson.fromJson(index, String[].class))
+                    {
+                        if (!savedIds.contains(id))
+                        {
+                            loadStoredGoal(configManager, configGroup, id, goals);
+                        }
+                    }
                 }
+                snapshotCurrent = true;
+                encodedSnapshotFile = snapshotFile;
+                snapshotEncodedMillis = System.currentTimeMillis();
+                return goals;
+            }
+
+            String index = getConfiguration(configManager, configGroup, INDEX_KEY);
+
+            if (index == null || index.isEmpty())
+            {
+                return profileKey == null ? loadLegacyGoals(configManager, configGroup) : migrateGlobalGoals(configManager, configGroup);
+            }
+
+            String[] ids = gson.fromJson(index, String[].class);
+            for (String id : ids)
+            {
+                loadStoredGoal(configManager, configGroup, id, goals);
             }
         }
         catch (Exception e)
@@ -82,44 +357,183 @@ public class GoalManager
     }
 
     /**
-     * Custom type adapter for Goal class to handle polymorphism
+     * Read one goal from its config key, skipping it if it cannot be read rather than failing the whole load
      */
-    private static class GoalTypeAdapter implements JsonSerializer<Goal>, JsonDeserializer<Goal>
+    private void loadStoredGoal(ConfigManager configManager, String configGroup, String id, List<Goal> goals)
+    {
+        String json = getConfiguration(configManager, configGroup, GOAL_KEY_PREFIX + id);
+        if (json == null || json.isEmpty())
+        {
+            log.warn("Missing stored goal {}", id);
+            return;
+        }
+
+        Goal goal;
+        try
+        {
+            goal = gson.fromJson(json, Goal.class);
+        }
+        catch (JsonParseException e)
+        {
+            log.warn("Skipping unreadable goal {}", id, e);
+            unreadableIds.add(id);
+            savedIndex.add(id);
+            savedIds.add(id);
+            return;
+        }
+
+        if (goal != null)
+        {
+            goals.add(goal);
+            savedIndex.add(id);
+            savedIds.add(id);
+        }
+    }
+
+    private List<Goal> loadSnapshot(String stamp)
     {
-        @Override
-        public JsonElement serialize(Goal goal, Type type, JsonSerializationContext context)
+        if (snapshotFile == null || stamp == null)
         {
-            return context.serialize(goal);
+            return null;
         }
 
-        @Override
-        public Goal deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException
+        try
+        {
+            GoalSnapshotCodec.Snapshot snapshot = GoalSnapshotCodec.read(snapshotFile);
+            if (snapshot == null || !stamp.equals(Long.toString(snapshot.generation)))
+            {
+                log.debug("Goal snapshot is missing or stale, loading from config");
+                return null;
+            }
+
+            return snapshot.goals;
+        }
+        catch (IOException e)
         {
-            JsonObject jsonObject = json.getAsJsonObject();
+            log.warn("Error reading goal snapshot, loading from config", e);
+            return null;
+        }
+    }
+
+    /**
+     * Load goals stored as a single array under the old "goals" key and move them to per-goal keys
+     */
+    private List<Goal> loadLegacyGoals(ConfigManager configManager, String configGroup)
+    {
+        List<Goal> goals = new ArrayList<>();
 
-            // Get the goal type from the JSON
-            GoalType goalType = GoalType.valueOf(jsonObject.get("type").getAsString());
+        String json = configManager.getConfiguration(configGroup, GOALS_KEY);
+
+        if (json == null || json.isEmpty())
+        {
+            return goals;
+        }
 
-            // Based on the goal type, deserialize to the appropriate subclass
-            Class<? extends Goal> goalClass;
-            switch (goalType)
+        // Parse the JSON goal by goal, so one that cannot be read does not lose the others
+        boolean skipped = false;
+        for (JsonElement element : gson.fromJson(json, JsonArray.class))
+        {
+            try
+            {
+                Goal goal = gson.fromJson(element, Goal.class);
+                if (goal != null)
+                {
+                    goals.add(goal);
+                }
+            }
+            catch (JsonParseException e)
             {
-                case SKILL:
-                    goalClass = SkillGoal.class;
-                    break;
-                case ITEM:
-                    goalClass = ItemGoal.class;
-                    break;
-                case COMBAT:
-                    goalClass = CombatGoal.class;
-                    break;
-                // Add more cases for other goal types
-                default:
-                    throw new JsonParseException("Unknown goal type: " + goalType);
+                log.warn("Skipping unreadable goal", e);
+                skipped = true;
             }
+        }
+
+        saveGoals(goals, configManager, configGroup);
+        if (!skipped)
+        {
+            // Left in place otherwise, the only copy of the goals that could not be read
+            configManager.unsetConfiguration(configGroup, GOALS_KEY);
+        }
+        log.debug("Migrated {} goals to per-goal storage", goals.size());
+
+        return goals;
+    }
+
+    /**
+     * Move the goals stored before goals were kept per profile into this profile,
+     * so they stay with the first account logged into rather than being shared by every account
+     */
+    private List<Goal> migrateGlobalGoals(ConfigManager configManager, String configGroup)
+    {
+        GoalManager global = new GoalManager(executor, null);
+        List<Goal> goals = global.loadGoals(configManager, configGroup);
+        if (goals.isEmpty())
+        {
+            return goals;
+        }
+
+        saveGoals(goals, configManager, configGroup);
+        global.saveGoals(new ArrayList<>(), configManager, configGroup);
+        configManager.unsetConfiguration(configGroup, INDEX_KEY);
+        migrated = true;
+        log.debug("Moved {} goals to profile {}", goals.size(), profileKey);
+
+        return goals;
+    }
 
-            // Deserialize to the appropriate subclass
-            return context.deserialize(jsonObject, goalClass);
+    /**
+     * Whether the last load took over the goals stored before goals were kept per profile
+     */
+    public boolean isMigrated()
+    {
+        return migrated;
+    }
+
+    private String getConfiguration(ConfigManager configManager, String configGroup, String key)
+    {
+        return profileKey == null
+            ? configManager.getConfiguration(configGroup, key)
+            : configManager.getConfiguration(configGroup, profileKey, key);
+    }
+
+    private void setConfiguration(ConfigManager configManager, String configGroup, String key, String value)
+    {
+        if (profileKey == null)
+        {
+            configManager.setConfiguration(configGroup, key, value);
+        }
+        else
+        {
+            configManager.setConfiguration(configGroup, profileKey, key, value);
         }
     }
-}
\ No newline at end of file
+
+    private void unsetConfiguration(ConfigManager configManager, String configGroup, String key)
+    {
+        if (profileKey == null)
+        {
+            configManager.unsetConfiguration(configGroup, key);
+        }
+        else
+        {
+            configManager.unsetConfiguration(configGroup, profileKey, key);
+        }
+    }
+
+    /**
+     * Goals serialized for writing, with the keys to remove and the new index, if any
+     */
+    private static class PendingSave
+    {
+        private final Map<String, String> goalJson = new LinkedHashMap<>();
+        private final Set<String> removedIds = new HashSet<>();
+        private String index;
+        // Whether the stored goals change, which makes the stored snapshot stale
+        private boolean changed;
+        private Path snapshotFile;
+        private long generation;
+        private byte[] snapshot;
+        private ConfigManager configManager;
+        private String configGroup;
+    }
+}
@@ -0,0 +1,154 @@
+package com.goaltracker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over the lowercased name, description and category of each goal.
+ * Queries of three or more characters only check goals sharing the query's rarest trigram.
+ */
+class GoalSearchIndex
+{
+    private static final int GRAM = 3;
+
+    // Goal id to its searchable text
+    private final Map<String, String> texts = new HashMap<>();
+    // Trigram to ids of goals containing it
+    private final Map<Long, Set<String>> postings = new HashMap<>();
+
+    /**
+     * Bring the index in line with the current goals, indexing new goals and dropping removed ones
+     */
+    public void sync(Collection<Goal> goals, Set<String> goalIds)
+    {
+        Iterator<Map.Entry<String, String>> it = texts.entrySet().iterator();
+        while (it.hasNext())
+        {
+            Map.Entry<String, String> entry = it.next();
+            if (!goalIds.contains(entry.getKey()))
+            {
+                unindex(entry.getKey(), entry.getValue());
+                it.remove();
+            }
+        }
+
+        for (Goal goal : goals)
+        {
+            if (!texts.containsKey(goal.getId()))
+            {
+                add(goal);
+            }
+        }
+    }
+
+    public void add(Goal goal)
+    {
+        String text = textOf(goal);
+        String previous = texts.put(goal.getId(), text);
+        if (previous != null)
+        {
+            unindex(goal.getId(), previous);
+        }
+
+        for (int i = 0; i + GRAM <= text.length(); i++)
+        {
+            postings.computeIfAbsent(gram(text, i), k -> new HashSet<>()).add(goal.getId());
+        }
+    }
+
+    public void remove(String goalId)
+    {
+        String text = texts.remove(goalId);
+        if (text != null)
+        {
+            unindex(goalId, text);
+        }
+    }
+
+    /**
+     * Find the goals matching a query
+     *
+     * @return ids of matching goals, or null if the query is blank and everything matches
+     */
+    public Set<String> search(String query)
+    {
+        String needle = query == null ? "" : query.trim().toLowerCase();
+        if (needle.isEmpty())
+        {
+            return null;
+        }
+
+        Collection<String> candidates;
+        if (needle.length() < GRAM)
+        {
+            candidates = texts.keySet();
+        }
+        else
+        {
+            candidates = null;
+            for (int i = 0; i + GRAM <= needle.length(); i++)
+            {
+                Set<String> posting = postings.get(gram(needle, i));
+                if (posting == null)
+                {
+                    return Collections.emptySet();
+                }
+
+                if (candidates == null || posting.size() < candidates.size())
+                {
+                    candidates = posting;
+                }
+            }
+        }
+
+        Set<String> matches = new HashSet<>();
+        for (String id : candidates)
+        {
+            if (texts.get(id).contains(needle))
+            {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    private void unindex(String goalId, String text)
+    {
+        for (int i = 0; i + GRAM <= text.length(); i++)
+        {
+            Long key = gram(text, i);
+            Set<String> posting = postings.get(key);
+            if (posting != null)
+            {
+                posting.remove(goalId);
+                if (posting.isEmpty())
+                {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    private static String textOf(Goal goal)
+    {
+        // Fields are separated so matches cannot span two of them
+        return (nullToEmpty(goal.getName()) + '\n'
+                + nullToEmpty(goal.getDescription()) + '\n'
+                + nullToEmpty(goal.getCategory())).toLowerCase();
+    }
+
+    private static String nullToEmpty(String s)
+    {
+        return s == null ? "" : s;
+    }
+
+    private static long gram(String s, int offset)
+    {
+        return ((long) s.charAt(offset) << 32) | ((long) s.charAt(offset + 1) << 16) | s.charAt(offset + 2);
+    }
+}
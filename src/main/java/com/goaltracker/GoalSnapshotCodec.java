@@ -0,0 +1,640 @@
+package com.goaltracker;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Quest;
+import net.runelite.api.Skill;
+
+/**
+ * Compact binary snapshot of all goals.
+ * <p>
+ * Layout: magic, format version, generation, string table, goal count, goals. Strings are
+ * interned into the table and referenced by index, ints are zig-zag varints, and this
+ * plugin's enums are stored as ordinals. RuneLite enums such as Skill are stored by name
+ * since their ordinals are not under our control.
+ * <p>
+ * Each goal is prefixed with its length and starts with its type name, so goals of a type
+ * this version does not know can be skipped. Goals of a type the codec cannot write are left
+ * out, and are loaded from the config instead.
+ */
+@Slf4j
+class GoalSnapshotCodec
+{
+    private static final int MAGIC = 0x4754524B; // "GTRK"
+    static final int VERSION = 7;
+
+    /**
+     * Goals read from a snapshot, with the generation they were written under
+     */
+    static class Snapshot
+    {
+        final long generation;
+        final List<Goal> goals;
+
+        Snapshot(long generation, List<Goal> goals)
+        {
+            this.generation = generation;
+            this.goals = goals;
+        }
+    }
+
+    static void write(Path file, long generation, List<Goal> goals) throws IOException
+    {
+        writeFile(file, encode(generation, goals));
+    }
+
+    /**
+     * Encode goals into snapshot bytes, so they can be written elsewhere with {@link #writeFile}
+     */
+    static byte[] encode(long generation, List<Goal> goals)
+    {
+        // Intern every string first so the table can precede the goals
+        StringTable strings = new StringTable();
+        List<Goal> written = new ArrayList<>(goals.size());
+        for (Goal goal : goals)
+        {
+            if (!isSupported(goal.getType()))
+            {
+                log.debug("Leaving goal {} of type {} out of the snapshot", goal.getId(), goal.getType());
+                continue;
+            }
+
+            collectStrings(goal, strings);
+            written.add(goal);
+        }
+
+        Encoder out = new Encoder(64 + goals.size() * 48);
+        out.fixedInt(MAGIC);
+        out.varint(VERSION);
+        out.fixedLong(generation);
+
+        out.varint(strings.values.size());
+        for (String s : strings.values)
+        {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.varint(bytes.length);
+            out.bytes(bytes);
+        }
+
+        out.varint(written.size());
+        Encoder record = new Encoder(64);
+        for (Goal goal : written)
+        {
+            record.reset();
+            writeGoal(record, goal, strings);
+            out.varint(record.size);
+            out.bytes(record.buf, record.size);
+        }
+
+        return Arrays.copyOf(out.buf, out.size);
+    }
+
+    static void writeFile(Path file, byte[] bytes) throws IOException
+    {
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot
+     *
+     * @return the snapshot, or null if the file does not exist or was written by another format version
+     */
+    static Snapshot read(Path file) throws IOException
+    {
+        if (!Files.isRegularFile(file))
+        {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < 4 || buffer.getInt() != MAGIC || readVarint(buffer) != VERSION)
+            {
+                return null;
+            }
+
+            long generation = buffer.getLong();
+
+            String[] strings = new String[readVarint(buffer)];
+            for (int i = 0; i < strings.length; i++)
+            {
+                byte[] bytes = new byte[readVarint(buffer)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int count = readVarint(buffer);
+            List<Goal> goals = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+            {
+                int length = readVarint(buffer);
+                int end = buffer.position() + length;
+                if (length < 0 || end > buffer.limit())
+                {
+                    throw new IllegalArgumentException("Goal record overruns the snapshot");
+                }
+
+                Goal goal = readGoal(buffer, strings);
+                if (buffer.position() > end)
+                {
+                    throw new IllegalArgumentException("Goal overruns its record");
+                }
+                buffer.position(end);
+
+                if (goal != null)
+                {
+                    goal.setDirty(false);
+                    goals.add(goal);
+                }
+            }
+
+            return new Snapshot(generation, goals);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+        {
+            throw new IOException("Corrupt goal snapshot " + file, e);
+        }
+    }
+
+    private static boolean isSupported(GoalType type)
+    {
+        if (type == null)
+        {
+            return false;
+        }
+
+        switch (type)
+        {
+            case SKILL:
+            case ITEM:
+            case COMBAT:
+            case QUEST:
+            case ACHIEVEMENT:
+            case COMPOSITE:
+            case WEALTH:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void collectStrings(Goal goal, StringTable strings)
+    {
+        strings.intern(goal.getType().name());
+        strings.intern(goal.getId());
+        strings.intern(goal.getName());
+        strings.intern(goal.getDescription());
+        strings.intern(goal.getCategory());
+        if (goal.getPrerequisiteIds() != null)
+        {
+            for (String prerequisiteId : goal.getPrerequisiteIds())
+            {
+                strings.intern(prerequisiteId);
+            }
+        }
+
+        if (goal instanceof SkillGoal)
+        {
+            Skill skill = ((SkillGoal) goal).getSkill();
+            strings.intern(skill == null ? null : skill.name());
+        }
+        else if (goal instanceof CombatGoal)
+        {
+            strings.intern(((CombatGoal) goal).getNpcName());
+        }
+        else if (goal instanceof QuestGoal)
+        {
+            Quest quest = ((QuestGoal) goal).getQuest();
+            strings.intern(quest == null ? null : quest.name());
+        }
+        else if (goal instanceof CompositeGoal && ((CompositeGoal) goal).getChildIds() != null)
+        {
+            for (String childId : ((CompositeGoal) goal).getChildIds())
+            {
+                strings.intern(childId);
+            }
+        }
+    }
+
+    private static void writeGoal(Encoder out, Goal goal, StringTable strings)
+    {
+        out.varint(strings.ref(goal.getType().name()));
+        out.varint(strings.ref(goal.getId()));
+        out.varint(strings.ref(goal.getName()));
+        out.varint(strings.ref(goal.getDescription()));
+        out.varint(strings.ref(goal.getCategory()));
+        out.varint(ordinal(goal.getStatus()));
+        writeInstant(out, goal.getCreationDate());
+        writeInstant(out, goal.getCompletionDate());
+        out.varint(goal.getCurrentProgress());
+        out.varint(goal.getTargetValue());
+        out.varint(goal.isAcknowledged() ? 1 : 0);
+        writeStringList(out, goal.getPrerequisiteIds(), strings);
+
+        switch (goal.getType())
+        {
+            case SKILL:
+                SkillGoal skillGoal = (SkillGoal) goal;
+                out.varint(strings.ref(skillGoal.getSkill() == null ? null : skillGoal.getSkill().name()));
+                out.varint(ordinal(skillGoal.getGoalType()));
+                break;
+            case ITEM:
+                ItemGoal itemGoal = (ItemGoal) goal;
+                out.varint(itemGoal.getItemId());
+                out.varint(ordinal(itemGoal.getItemGoalType()));
+                break;
+            case COMBAT:
+                CombatGoal combatGoal = (CombatGoal) goal;
+                out.varint(strings.ref(combatGoal.getNpcName()));
+                out.varint(combatGoal.getNpcId());
+                out.varint(ordinal(combatGoal.getCombatGoalType()));
+                out.varint(combatGoal.getInitialKillCount());
+                break;
+            case QUEST:
+                QuestGoal questGoal = (QuestGoal) goal;
+                out.varint(strings.ref(questGoal.getQuest() == null ? null : questGoal.getQuest().name()));
+                break;
+            case ACHIEVEMENT:
+                AchievementGoal achievementGoal = (AchievementGoal) goal;
+                out.varint(ordinal(achievementGoal.getAchievementType()));
+                out.varint(ordinal(achievementGoal.getDiary()));
+                out.varint(ordinal(achievementGoal.getVarType()));
+                out.varint(achievementGoal.getVarId());
+                out.varint(achievementGoal.getBit());
+                out.varint(achievementGoal.getRequiredValue());
+                break;
+            case COMPOSITE:
+                CompositeGoal compositeGoal = (CompositeGoal) goal;
+                writeStringList(out, compositeGoal.getChildIds(), strings);
+                out.varint(ordinal(compositeGoal.getMode()));
+                out.varint(compositeGoal.getRequiredCount());
+                break;
+            case WEALTH:
+                WealthGoal wealthGoal = (WealthGoal) goal;
+                out.varint(ordinal(wealthGoal.getItemGoalType()));
+                writeIntList(out, wealthGoal.getItemIds());
+                out.varlong(wealthGoal.getTargetWealth());
+                out.varlong(wealthGoal.getCurrentWealth());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown goal type: " + goal.getType());
+        }
+    }
+
+    /**
+     * Read a goal record
+     *
+     * @return the goal, or null if its type is not known to this version
+     */
+    private static Goal readGoal(ByteBuffer in, String[] strings)
+    {
+        String typeName = string(in, strings);
+        GoalType type = goalType(typeName);
+        if (!isSupported(type))
+        {
+            log.debug("Skipping snapshot goal of unknown type {}", typeName);
+            return null;
+        }
+
+        Goal goal;
+        try
+        {
+            goal = GoalTypeAdapterFactory.goalClass(type).getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new IllegalArgumentException("Cannot create goal of type " + type, e);
+        }
+
+        goal.setType(type);
+        goal.setId(string(in, strings));
+        goal.setName(string(in, strings));
+        goal.setDescription(string(in, strings));
+        goal.setCategory(string(in, strings));
+        goal.setStatus(enumValue(GoalStatus.values(), readVarint(in)));
+        goal.setCreationDate(readInstant(in));
+        goal.setCompletionDate(readInstant(in));
+        goal.setCurrentProgress(readVarint(in));
+        goal.setTargetValue(readVarint(in));
+        goal.setAcknowledged(readVarint(in) != 0);
+        goal.setPrerequisiteIds(readStringList(in, strings));
+
+        switch (type)
+        {
+            case SKILL:
+                SkillGoal skillGoal = (SkillGoal) goal;
+                String skill = string(in, strings);
+                skillGoal.setSkill(skill == null ? null : Skill.valueOf(skill));
+                skillGoal.setGoalType(enumValue(SkillGoalType.values(), readVarint(in)));
+                break;
+            case ITEM:
+                ItemGoal itemGoal = (ItemGoal) goal;
+                itemGoal.setItemId(readVarint(in));
+                itemGoal.setItemGoalType(enumValue(ItemGoalType.values(), readVarint(in)));
+                break;
+            case COMBAT:
+                CombatGoal combatGoal = (CombatGoal) goal;
+                combatGoal.setNpcName(string(in, strings));
+                combatGoal.setNpcId(readVarint(in));
+                combatGoal.setCombatGoalType(enumValue(CombatGoalType.values(), readVarint(in)));
+                combatGoal.setInitialKillCount(readVarint(in));
+                break;
+            case QUEST:
+                String quest = string(in, strings);
+                ((QuestGoal) goal).setQuest(quest == null ? null : Quest.valueOf(quest));
+                break;
+            case ACHIEVEMENT:
+                AchievementGoal achievementGoal = (AchievementGoal) goal;
+                achievementGoal.setAchievementType(enumValue(AchievementType.values(), readVarint(in)));
+                achievementGoal.setDiary(enumValue(AchievementDiary.values(), readVarint(in)));
+                achievementGoal.setVarType(enumValue(AchievementVarType.values(), readVarint(in)));
+                achievementGoal.setVarId(readVarint(in));
+                achievementGoal.setBit(readVarint(in));
+                achievementGoal.setRequiredValue(readVarint(in));
+                break;
+            case COMPOSITE:
+                CompositeGoal compositeGoal = (CompositeGoal) goal;
+                compositeGoal.setChildIds(readStringList(in, strings));
+                compositeGoal.setMode(enumValue(CompositeMode.values(), readVarint(in)));
+                compositeGoal.setRequiredCount(readVarint(in));
+                break;
+            case WEALTH:
+                WealthGoal wealthGoal = (WealthGoal) goal;
+                wealthGoal.setItemGoalType(enumValue(ItemGoalType.values(), readVarint(in)));
+                wealthGoal.setItemIds(readIntList(in));
+                wealthGoal.setTargetWealth(readVarlong(in));
+                wealthGoal.setCurrentWealth(readVarlong(in));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown goal type: " + type);
+        }
+
+        return goal;
+    }
+
+    private static GoalType goalType(String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return GoalType.valueOf(name);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    private static void writeInstant(Encoder out, Instant instant)
+    {
+        if (instant == null)
+        {
+            out.varint(0);
+            return;
+        }
+
+        out.varint(1);
+        out.varlong(instant.getEpochSecond());
+        out.varint(instant.getNano());
+    }
+
+    private static Instant readInstant(ByteBuffer in)
+    {
+        if (readVarint(in) == 0)
+        {
+            return null;
+        }
+
+        long seconds = readVarlong(in);
+        return Instant.ofEpochSecond(seconds, readVarint(in));
+    }
+
+    // Lists are stored as size + 1 so that 0 can mean null
+    private static void writeStringList(Encoder out, List<String> values, StringTable strings)
+    {
+        if (values == null)
+        {
+            out.varint(0);
+            return;
+        }
+
+        out.varint(values.size() + 1);
+        for (String value : values)
+        {
+            out.varint(strings.ref(value));
+        }
+    }
+
+    private static List<String> readStringList(ByteBuffer in, String[] strings)
+    {
+        int size = readVarint(in) - 1;
+        if (size < 0)
+        {
+            return null;
+        }
+
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            values.add(string(in, strings));
+        }
+        return values;
+    }
+
+    private static void writeIntList(Encoder out, List<Integer> values)
+    {
+        if (values == null)
+        {
+            out.varint(0);
+            return;
+        }
+
+        out.varint(values.size() + 1);
+        for (int value : values)
+        {
+            out.varint(value);
+        }
+    }
+
+    private static List<Integer> readIntList(ByteBuffer in)
+    {
+        int size = readVarint(in) - 1;
+        if (size < 0)
+        {
+            return null;
+        }
+
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            values.add(readVarint(in));
+        }
+        return values;
+    }
+
+    private static String string(ByteBuffer in, String[] strings)
+    {
+        int ref = readVarint(in);
+        return ref == 0 ? null : strings[ref - 1];
+    }
+
+    // Enum ordinals are stored off by one so that 0 can mean null
+    private static int ordinal(Enum<?> value)
+    {
+        return value == null ? 0 : value.ordinal() + 1;
+    }
+
+    private static <E extends Enum<E>> E enumValue(E[] values, int ordinal)
+    {
+        return ordinal == 0 ? null : values[ordinal - 1];
+    }
+
+    static int readVarint(ByteBuffer in)
+    {
+        return (int) readVarlong(in);
+    }
+
+    static long readVarlong(ByteBuffer in)
+    {
+        long raw = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            byte b = in.get();
+            raw |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                // Zig-zag decode
+                return (raw >>> 1) ^ -(raw & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Strings in first-seen order, referenced by index + 1 with 0 meaning null
+     */
+    private static class StringTable
+    {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void intern(String s)
+        {
+            if (s != null && !refs.containsKey(s))
+            {
+                values.add(s);
+                refs.put(s, values.size());
+            }
+        }
+
+        int ref(String s)
+        {
+            return s == null ? 0 : refs.get(s);
+        }
+    }
+
+    /**
+     * Growable byte buffer with varint encoding
+     */
+    static class Encoder
+    {
+        private byte[] buf;
+        private int size;
+
+        Encoder(int capacity)
+        {
+            buf = new byte[Math.max(capacity, 16)];
+        }
+
+        void varint(int value)
+        {
+            varlong(value);
+        }
+
+        void varlong(long value)
+        {
+            // Zig-zag encode so small negative values stay short
+            long v = (value << 1) ^ (value >> 63);
+            ensure(10);
+            while ((v & ~0x7FL) != 0)
+            {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void fixedInt(int value)
+        {
+            ensure(4);
+            buf[size++] = (byte) (value >>> 24);
+            buf[size++] = (byte) (value >>> 16);
+            buf[size++] = (byte) (value >>> 8);
+            buf[size++] = (byte) value;
+        }
+
+        void fixedLong(long value)
+        {
+            fixedInt((int) (value >>> 32));
+            fixedInt((int) value);
+        }
+
+        void bytes(byte[] bytes)
+        {
+            bytes(bytes, bytes.length);
+        }
+
+        void bytes(byte[] bytes, int length)
+        {
+            ensure(length);
+            System.arraycopy(bytes, 0, buf, size, length);
+            size += length;
+        }
+
+        void reset()
+        {
+            size = 0;
+        }
+
+        private void ensure(int extra)
+        {
+            if (size + extra > buf.length)
+            {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+    }
+}
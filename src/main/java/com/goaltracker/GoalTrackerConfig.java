@@ -39,4 +39,26 @@ public interface GoalTrackerConfig extends Config
 	{
 		return false;
 	}
-}
\ No newline at end of file
+
+	@ConfigItem(
+			keyName = "compactListThreshold",
+			name = "Compact List Threshold",
+			description = "Show goals in a lightweight list once more than this many are visible",
+			position = 4
+	)
+	default int compactListThreshold()
+	{
+		return 200;
+	}
+
+	@ConfigItem(
+			keyName = "binarySnapshot",
+			name = "Fast Startup Snapshot",
+			description = "Also keep goals in a compact binary file, which loads faster than the config for large goal sets",
+			position = 5
+	)
+	default boolean binarySnapshot()
+	{
+		return false;
+	}
+}
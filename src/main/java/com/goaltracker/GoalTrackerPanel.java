@@ -10,19 +10,31 @@ import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.PluginPanel;
@@ -31,14 +43,41 @@ import net.runelite.client.util.SwingUtil;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.components.IconTextField;
 import net.runelite.client.util.ImageUtil;
+import net.runelite.client.util.QuantityFormatter;
 import net.runelite.client.Notifier;
 
+@Slf4j
 public class GoalTrackerPanel extends PluginPanel {
+    private static final String NO_GOALS_LAYOUT = "";
+    private static final int SEARCH_DEBOUNCE_MS = 150;
+    // Rates decay and the recent change moves while goals sit idle, so their labels are redrawn now and then
+    private static final int TIME_REFRESH_MS = 60_000;
+
     private final GoalTrackerPlugin plugin;
     private final JPanel goalListPanel = new JPanel();
     private final JButton addGoalButton = new JButton("Add New Goal");
     private final IconTextField searchBar = new IconTextField();
     private final JPanel noGoalsPanel = new JPanel();
+    private final GoalSearchIndex searchIndex = new GoalSearchIndex();
+    private final Timer searchDebounce = new Timer(SEARCH_DEBOUNCE_MS, e -> updateGoalList());
+    private final Timer timeRefresh = new Timer(TIME_REFRESH_MS, e -> refreshTimes());
+    private final JScrollPane scrollPane = new JScrollPane();
+    private final GoalListModel goalListModel = new GoalListModel();
+    private final JList<Goal> goalList = new JList<>(goalListModel);
+    // Whether goals are currently shown in the compact list rather than as individual rows
+    private boolean listMode;
+
+    // Goal rows keyed by goal id, reused across rebuilds
+    private final Map<String, GoalView> goalViews = new HashMap<>();
+    private final Map<GoalType, JPanel> categoryPanels = new EnumMap<>(GoalType.class);
+    // Category names and goal ids currently laid out, in display order
+    private List<String> currentLayout = null;
+    private final Set<String> visibleGoalIds = new HashSet<>();
+
+    // Refresh requests not yet handled on the EDT, guarded by pendingGoalIds
+    private final Set<String> pendingGoalIds = new HashSet<>();
+    private boolean fullRefreshPending;
+    private boolean refreshQueued;
 
     public GoalTrackerPanel(GoalTrackerPlugin plugin) {
         super(false);
@@ -55,6 +94,25 @@ public class GoalTrackerPanel extends PluginPanel {
         searchBar.addActionListener(e -> updateGoalList());
         searchBar.addClearListener(() -> updateGoalList());
 
+        // Filter as you type, once typing pauses
+        searchDebounce.setRepeats(false);
+        searchBar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+        });
+
         JPanel topPanel = new JPanel();
         topPanel.setLayout(new BorderLayout(0, 5));
         topPanel.add(searchBar, BorderLayout.NORTH);
@@ -76,8 +134,23 @@ public class GoalTrackerPanel extends PluginPanel {
         noGoalsPanel.add(noGoalsLabel, BorderLayout.CENTER);
         noGoalsPanel.setBorder(new EmptyBorder(50, 0, 0, 0));
 
+        // Compact list used for large goal sets
+        goalList.setCellRenderer(new GoalListRenderer());
+        goalList.setFixedCellHeight(GoalListRenderer.ROW_HEIGHT);
+        goalList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                showListPopup(e);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                showListPopup(e);
+            }
+        });
+
         // Scroll pane for goal list
-        JScrollPane scrollPane = new JScrollPane(goalListPanel);
+        scrollPane.setViewportView(goalListPanel);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         scrollPane.setBorder(new EmptyBorder(0, 0, 0, 0));
 
@@ -88,45 +161,34 @@ public class GoalTrackerPanel extends PluginPanel {
     }
 
     public void rebuild() {
-        goalListPanel.removeAll();
+        GoalListSnapshot goalList = plugin.getGoalList();
+        List<Goal> goals = goalList.getGoals();
 
-        List<Goal> goals = plugin.getGoals();
+        // Forget views of goals that no longer exist
+        Set<String> goalIds = new HashSet<>();
+        for (Goal goal : goals) {
+            goalIds.add(goal.getId());
+        }
+        goalViews.keySet().retainAll(goalIds);
 
+        searchIndex.sync(goals, goalIds);
+        Set<String> matches = searchIndex.search(searchBar.getText());
+
+        // Work out which goals are visible, in display order
+        Map<GoalType, List<Goal>> visibleGoals = new EnumMap<>(GoalType.class);
+        List<String> layout = new ArrayList<>();
         if (goals.isEmpty()) {
-            goalListPanel.add(noGoalsPanel);
+            layout.add(NO_GOALS_LAYOUT);
         } else {
             // Group goals by category
             for (GoalType type : GoalType.values()) {
-                List<Goal> categoryGoals = plugin.getGoalsByCategory(type);
-
-                if (categoryGoals.isEmpty()) {
-                    continue;
-                }
+                List<Goal> categoryGoals = goalList.getGoals(type);
+                List<Goal> visible = new ArrayList<>();
 
-                // Create category panel
-                JPanel categoryPanel = new JPanel();
-                categoryPanel.setLayout(new BoxLayout(categoryPanel, BoxLayout.Y_AXIS));
-                categoryPanel.setBorder(new CompoundBorder(
-                        BorderFactory.createTitledBorder(
-                                BorderFactory.createLineBorder(ColorScheme.LIGHT_GRAY_COLOR),
-                                type.toString(),
-                                TitledBorder.CENTER,
-                                TitledBorder.TOP,
-                                FontManager.getRunescapeBoldFont()
-                        ),
-                        BorderFactory.createEmptyBorder(5, 5, 5, 5)
-                ));
-
-                // Add goals to category panel
                 for (Goal goal : categoryGoals) {
                     // Apply search filter if needed
-                    String searchText = searchBar.getText().toLowerCase();
-                    if (!searchText.isEmpty()) {
-                        if (!goal.getName().toLowerCase().contains(searchText) &&
-                                !goal.getDescription().toLowerCase().contains(searchText) &&
-                                !goal.getCategory().toLowerCase().contains(searchText)) {
-                            continue;
-                        }
+                    if (matches != null && !matches.contains(goal.getId())) {
+                        continue;
                     }
 
                     // Skip completed goals based on config
@@ -134,13 +196,135 @@ public class GoalTrackerPanel extends PluginPanel {
                         continue;
                     }
 
-                    categoryPanel.add(createGoalPanel(goal));
+                    visible.add(goal);
                 }
 
                 // Only add category if it has visible goals
-                if (categoryPanel.getComponentCount() > 0) {
-                    goalListPanel.add(categoryPanel);
+                if (!visible.isEmpty()) {
+                    visibleGoals.put(type, visible);
+                    layout.add(type.name());
+                    for (Goal goal : visible) {
+                        layout.add(goal.getId());
+                    }
+                }
+            }
+        }
+
+        int threshold = plugin.getConfig().compactListThreshold();
+        boolean useList = !goals.isEmpty() && layout.size() - visibleGoals.size() > threshold;
+        if (useList != listMode) {
+            switchMode(useList);
+        }
+
+        if (listMode) {
+            if (!layout.equals(currentLayout)) {
+                List<Goal> rows = new ArrayList<>();
+                for (List<Goal> visible : visibleGoals.values()) {
+                    rows.addAll(visible);
                 }
+                goalListModel.setGoals(rows);
+                currentLayout = layout;
+            } else {
+                goalListModel.refreshAll();
+            }
+        } else if (!layout.equals(currentLayout)) {
+            relayout(goals.isEmpty(), visibleGoals);
+            currentLayout = layout;
+        } else {
+            // Same goals on screen, only patch the ones whose progress changed
+            for (List<Goal> visible : visibleGoals.values()) {
+                for (Goal goal : visible) {
+                    goalViews.get(goal.getId()).update(goal);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onActivate() {
+        // Only while shown, a hidden panel has nothing to redraw
+        refreshTimes();
+        timeRefresh.start();
+    }
+
+    @Override
+    public void onDeactivate() {
+        timeRefresh.stop();
+    }
+
+    /**
+     * Redraw the time-dependent labels of the goals on screen, the compact list shows none
+     */
+    private void refreshTimes() {
+        if (listMode) {
+            return;
+        }
+
+        for (String id : visibleGoalIds) {
+            GoalView view = goalViews.get(id);
+            if (view != null) {
+                view.updateTimes();
+            }
+        }
+    }
+
+    private void switchMode(boolean useList) {
+        listMode = useList;
+        currentLayout = null;
+
+        if (useList) {
+            // Drop the per-goal rows, the list paints everything with one renderer
+            goalListPanel.removeAll();
+            goalViews.clear();
+            visibleGoalIds.clear();
+            for (JPanel categoryPanel : categoryPanels.values()) {
+                categoryPanel.removeAll();
+            }
+            scrollPane.setViewportView(goalList);
+        } else {
+            goalListModel.setGoals(new ArrayList<>());
+            scrollPane.setViewportView(goalListPanel);
+        }
+    }
+
+    private void showListPopup(MouseEvent e) {
+        if (!e.isPopupTrigger()) {
+            return;
+        }
+
+        int index = goalList.locationToIndex(e.getPoint());
+        if (index < 0 || !goalList.getCellBounds(index, index).contains(e.getPoint())) {
+            return;
+        }
+
+        goalList.setSelectedIndex(index);
+        createPopupMenu(goalListModel.getElementAt(index)).show(goalList, e.getX(), e.getY());
+    }
+
+    private void relayout(boolean empty, Map<GoalType, List<Goal>> visibleGoals) {
+        goalListPanel.removeAll();
+        visibleGoalIds.clear();
+
+        if (empty) {
+            goalListPanel.add(noGoalsPanel);
+        } else {
+            for (Map.Entry<GoalType, List<Goal>> entry : visibleGoals.entrySet()) {
+                JPanel categoryPanel = categoryPanels.computeIfAbsent(entry.getKey(), this::createCategoryPanel);
+                categoryPanel.removeAll();
+
+                for (Goal goal : entry.getValue()) {
+                    GoalView view = goalViews.get(goal.getId());
+                    if (view == null) {
+                        view = createGoalPanel(goal);
+                        goalViews.put(goal.getId(), view);
+                    } else {
+                        view.update(goal);
+                    }
+                    categoryPanel.add(view.panel);
+                    visibleGoalIds.add(goal.getId());
+                }
+
+                goalListPanel.add(categoryPanel);
             }
         }
 
@@ -148,7 +332,23 @@ public class GoalTrackerPanel extends PluginPanel {
         goalListPanel.repaint();
     }
 
-    private JPanel createGoalPanel(Goal goal) {
+    private JPanel createCategoryPanel(GoalType type) {
+        JPanel categoryPanel = new JPanel();
+        categoryPanel.setLayout(new BoxLayout(categoryPanel, BoxLayout.Y_AXIS));
+        categoryPanel.setBorder(new CompoundBorder(
+                BorderFactory.createTitledBorder(
+                        BorderFactory.createLineBorder(ColorScheme.LIGHT_GRAY_COLOR),
+                        type.toString(),
+                        TitledBorder.CENTER,
+                        TitledBorder.TOP,
+                        FontManager.getRunescapeBoldFont()
+                ),
+                BorderFactory.createEmptyBorder(5, 5, 5, 5)
+        ));
+        return categoryPanel;
+    }
+
+    private GoalView createGoalPanel(Goal goal) {
         JPanel panel = new JPanel();
         panel.setLayout(new BorderLayout(5, 0));
         panel.setBorder(new EmptyBorder(5, 0, 5, 0));
@@ -157,12 +357,6 @@ public class GoalTrackerPanel extends PluginPanel {
         JPanel statusIndicator = new JPanel();
         statusIndicator.setPreferredSize(new Dimension(5, 0));
 
-        if (goal.isCompleted()) {
-            statusIndicator.setBackground(ColorScheme.PROGRESS_COMPLETE_COLOR);
-        } else {
-            statusIndicator.setBackground(ColorScheme.PROGRESS_INPROGRESS_COLOR);
-        }
-
         panel.add(statusIndicator, BorderLayout.WEST);
 
         // Main content panel
@@ -192,33 +386,24 @@ public class GoalTrackerPanel extends PluginPanel {
             contentPanel.add(descLabel, c);
         }
 
+        // Prerequisites still holding the goal back
+        JLabel lockLabel = new JLabel();
+        lockLabel.setFont(FontManager.getRunescapeSmallFont());
+        lockLabel.setForeground(ColorScheme.MEDIUM_GRAY_COLOR);
+        c.gridy++;
+        c.insets = new Insets(2, 5, 0, 0);
+        contentPanel.add(lockLabel, c);
+
         // Progress bar
         ProgressBar progressBar = new ProgressBar();
-        progressBar.setMaximumValue(goal.getTargetValue());
-        progressBar.setValue(goal.getCurrentProgress());
         progressBar.setPreferredSize(new Dimension(PluginPanel.PANEL_WIDTH - 80, 15));
 
-        if (goal.isCompleted()) {
-            progressBar.setForeground(ColorScheme.PROGRESS_COMPLETE_COLOR);
-        } else {
-            progressBar.setForeground(ColorScheme.PROGRESS_INPROGRESS_COLOR);
-        }
-
         c.gridy++;
         c.insets = new Insets(5, 5, 5, 5);
         contentPanel.add(progressBar, c);
 
         // Progress text
-        String progressText;
-        if (goal instanceof SkillGoal) {
-            progressText = ((SkillGoal) goal).getFormattedProgress();
-        } else if (goal instanceof CombatGoal) {
-            progressText = ((CombatGoal) goal).getFormattedProgress();
-        } else {
-            progressText = goal.getCurrentProgress() + "/" + goal.getTargetValue();
-        }
-
-        JLabel progressLabel = new JLabel(progressText + " (" + goal.getProgressPercentage() + "%)");
+        JLabel progressLabel = new JLabel();
         progressLabel.setFont(FontManager.getRunescapeSmallFont());
         progressLabel.setHorizontalAlignment(JLabel.RIGHT);
 
@@ -226,6 +411,27 @@ public class GoalTrackerPanel extends PluginPanel {
         c.insets = new Insets(0, 5, 5, 5);
         contentPanel.add(progressLabel, c);
 
+        // Estimated time to completion
+        JLabel etaLabel = new JLabel();
+        etaLabel.setFont(FontManager.getRunescapeSmallFont());
+        etaLabel.setForeground(Color.LIGHT_GRAY);
+        c.gridy++;
+        c.insets = new Insets(0, 5, 2, 5);
+        contentPanel.add(etaLabel, c);
+
+        // Progress history
+        Sparkline sparkline = new Sparkline();
+        c.gridy++;
+        c.insets = new Insets(0, 5, 2, 5);
+        contentPanel.add(sparkline, c);
+
+        JLabel recentLabel = new JLabel();
+        recentLabel.setFont(FontManager.getRunescapeSmallFont());
+        recentLabel.setForeground(Color.LIGHT_GRAY);
+        c.gridy++;
+        c.insets = new Insets(0, 5, 5, 5);
+        contentPanel.add(recentLabel, c);
+
         // Category tag if present
         if (goal.getCategory() != null && !goal.getCategory().isEmpty()) {
             JPanel tagPanel = new JPanel();
@@ -245,6 +451,22 @@ public class GoalTrackerPanel extends PluginPanel {
 
         panel.add(contentPanel, BorderLayout.CENTER);
 
+        // Add mouse listener for double-click to edit
+        panel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+//                    editGoal(goal);
+                }
+            }
+        });
+
+        GoalView view = new GoalView(panel, statusIndicator, lockLabel, progressBar, progressLabel, etaLabel, sparkline, recentLabel);
+        view.update(goal);
+        return view;
+    }
+
+    private JPopupMenu createPopupMenu(Goal goal) {
         // Add right-click menu
         JPopupMenu popupMenu = new JPopupMenu();
 //        JMenuItem editItem = new JMenuItem("Edit");
@@ -262,23 +484,307 @@ public class GoalTrackerPanel extends PluginPanel {
             popupMenu.add(acknowledgeItem);
         }
 
-        panel.setComponentPopupMenu(popupMenu);
+        return popupMenu;
+    }
 
-        // Add mouse listener for double-click to edit
-        panel.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                if (e.getClickCount() == 2) {
-//                    editGoal(goal);
+    private static String formatDuration(long millis) {
+        long minutes = millis / 60000;
+        if (minutes < 1) {
+            return "<1m";
+        }
+
+        long hours = minutes / 60;
+        if (hours >= 24) {
+            return hours / 24 + "d " + hours % 24 + "h";
+        }
+
+        return hours > 0 ? hours + "h " + minutes % 60 + "m" : minutes + "m";
+    }
+
+    static Color statusColor(Goal goal) {
+        if (goal.isCompleted()) {
+            return ColorScheme.PROGRESS_COMPLETE_COLOR;
+        }
+        return goal.isLocked() ? ColorScheme.MEDIUM_GRAY_COLOR : ColorScheme.PROGRESS_INPROGRESS_COLOR;
+    }
+
+    static String formatProgress(Goal goal) {
+        String progressText;
+        if (goal instanceof SkillGoal) {
+            progressText = ((SkillGoal) goal).getFormattedProgress();
+        } else if (goal instanceof CombatGoal) {
+            progressText = ((CombatGoal) goal).getFormattedProgress();
+        } else if (goal instanceof QuestGoal) {
+            progressText = ((QuestGoal) goal).getFormattedProgress();
+        } else if (goal instanceof AchievementGoal) {
+            progressText = ((AchievementGoal) goal).getFormattedProgress();
+        } else if (goal instanceof WealthGoal) {
+            progressText = ((WealthGoal) goal).getFormattedProgress();
+        } else if (goal instanceof CompositeGoal) {
+            progressText = ((CompositeGoal) goal).getFormattedProgress();
+        } else {
+            progressText = goal.getCurrentProgress() + "/" + goal.getTargetValue();
+        }
+
+        return progressText + " (" + goal.getProgressPercentage() + "%)";
+    }
+
+    /**
+     * Rows of the compact list, with each goal's row index kept for targeted repaints
+     */
+    private static class GoalListModel extends AbstractListModel<Goal> {
+        private List<Goal> goals = new ArrayList<>();
+        private final Map<String, Integer> rowIndex = new HashMap<>();
+
+        void setGoals(List<Goal> goals) {
+            int oldSize = this.goals.size();
+            this.goals = goals;
+            rowIndex.clear();
+            for (int i = 0; i < goals.size(); i++) {
+                rowIndex.put(goals.get(i).getId(), i);
+            }
+
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            if (!goals.isEmpty()) {
+                fireIntervalAdded(this, 0, goals.size() - 1);
+            }
+        }
+
+        void refreshAll() {
+            if (!goals.isEmpty()) {
+                fireContentsChanged(this, 0, goals.size() - 1);
+            }
+        }
+
+        /**
+         * Repaint the rows of changed goals
+         *
+         * @return false if a goal completed and the rows need to be rebuilt
+         */
+        boolean refresh(List<String> changedGoalIds) {
+            for (String id : changedGoalIds) {
+                Integer index = rowIndex.get(id);
+                if (index == null) {
+                    continue;
+                }
+
+                if (goals.get(index).isCompleted()) {
+                    return false;
                 }
+
+                fireContentsChanged(this, index, index);
             }
-        });
 
-        return panel;
+            return true;
+        }
+
+        @Override
+        public int getSize() {
+            return goals.size();
+        }
+
+        @Override
+        public Goal getElementAt(int index) {
+            return goals.get(index);
+        }
     }
 
+    /**
+     * The components of one goal's row, patched in place when its progress changes
+     */
+    private class GoalView {
+        private final JPanel panel;
+        private final JPanel statusIndicator;
+        private final JLabel lockLabel;
+        private final ProgressBar progressBar;
+        private final JLabel progressLabel;
+        private final JLabel etaLabel;
+        private final Sparkline sparkline;
+        private final JLabel recentLabel;
+
+        private Goal goal;
+        private int progress;
+        private int target;
+        private GoalStatus status;
+        private boolean acknowledged;
+        private boolean locked;
+
+        GoalView(JPanel panel, JPanel statusIndicator, JLabel lockLabel, ProgressBar progressBar, JLabel progressLabel,
+                 JLabel etaLabel, Sparkline sparkline, JLabel recentLabel) {
+            this.panel = panel;
+            this.statusIndicator = statusIndicator;
+            this.lockLabel = lockLabel;
+            this.progressBar = progressBar;
+            this.progressLabel = progressLabel;
+            this.etaLabel = etaLabel;
+            this.sparkline = sparkline;
+            this.recentLabel = recentLabel;
+        }
+
+        void update(Goal goal) {
+            boolean menuChanged = this.goal != goal || status != goal.getStatus() || acknowledged != goal.isAcknowledged();
+            boolean progressChanged = menuChanged || progress != goal.getCurrentProgress() || target != goal.getTargetValue()
+                    || locked != goal.isLocked();
+
+            if (!progressChanged) {
+                return;
+            }
+
+            this.goal = goal;
+            progress = goal.getCurrentProgress();
+            target = goal.getTargetValue();
+            status = goal.getStatus();
+            acknowledged = goal.isAcknowledged();
+            locked = goal.isLocked();
+
+            Color color = statusColor(goal);
+            statusIndicator.setBackground(color);
+            progressBar.setForeground(color);
+            progressBar.setMaximumValue(target);
+            progressBar.setValue(progress);
+            progressLabel.setText(formatProgress(goal));
+            updateLock(goal);
+            updateEta(goal);
+            updateHistory(goal);
+
+            if (menuChanged) {
+                panel.setComponentPopupMenu(createPopupMenu(goal));
+            }
+        }
+
+        void updateTimes() {
+            updateEta(goal);
+            updateHistory(goal);
+        }
+
+        private void updateLock(Goal goal) {
+            if (!goal.isLocked()) {
+                lockLabel.setVisible(false);
+                return;
+            }
+
+            StringBuilder text = new StringBuilder("Locked, needs ");
+            List<String> blocking = plugin.getGoalList().getBlockingPrerequisites(goal);
+            for (int i = 0; i < blocking.size(); i++) {
+                if (i > 0) {
+                    text.append(", ");
+                }
+                text.append(blocking.get(i));
+            }
+            lockLabel.setText(text.toString());
+            lockLabel.setVisible(true);
+        }
+
+        private void updateEta(Goal goal) {
+            // Read from the snapshot's copy, the client thread keeps recording into the goal's own
+            GoalListSnapshot.Progress progress = plugin.getGoalList().getProgress(goal);
+            long now = System.currentTimeMillis();
+            long eta = progress == null ? -1 : progress.estimateTimeRemaining(now);
+            if (eta < 0) {
+                etaLabel.setVisible(false);
+                return;
+            }
+
+            long perHour = (long) progress.getRatePerHour(now);
+            etaLabel.setText("ETA: " + formatDuration(eta) + " (" + QuantityFormatter.quantityToStackSize(perHour) + "/h)");
+            etaLabel.setVisible(true);
+        }
+
+        private void updateHistory(Goal goal) {
+            GoalListSnapshot.Progress progress = plugin.getGoalList().getProgress(goal);
+            ProgressHistory history = progress == null ? null : progress.getHistory();
+            sparkline.setHistory(history);
+
+            if (history == null) {
+                recentLabel.setVisible(false);
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            int lastHour = history.getChangeSince(now - ProgressHistory.HOUR_MS);
+            int lastDay = history.getChangeSince(now - 24 * ProgressHistory.HOUR_MS);
+            recentLabel.setText("+" + lastHour + " last hour, +" + lastDay + " last day");
+            recentLabel.setVisible(lastDay != 0);
+        }
+    }
+
+    /**
+     * Request a full refresh of the goal list
+     */
     public void updateGoalList() {
-        SwingUtilities.invokeLater(this::rebuild);
+        updateGoalList(null);
+    }
+
+    /**
+     * Request a refresh of the given goals, or of the whole list if changedGoalIds is null.
+     * Requests made before the EDT gets to them are merged into a single pass.
+     */
+    public void updateGoalList(Collection<String> changedGoalIds) {
+        synchronized (pendingGoalIds) {
+            if (changedGoalIds == null) {
+                fullRefreshPending = true;
+            } else {
+                pendingGoalIds.addAll(changedGoalIds);
+            }
+
+            if (refreshQueued) {
+                return;
+            }
+            refreshQueued = true;
+        }
+
+        SwingUtilities.invokeLater(this::flushRefresh);
+    }
+
+    private void flushRefresh() {
+        long start = System.nanoTime();
+
+        boolean full;
+        List<String> changed;
+        synchronized (pendingGoalIds) {
+            full = fullRefreshPending;
+            changed = new ArrayList<>(pendingGoalIds);
+            pendingGoalIds.clear();
+            fullRefreshPending = false;
+            refreshQueued = false;
+        }
+
+        if (full || !refreshGoals(changed)) {
+            rebuild();
+        }
+
+        log.debug("Goal list refresh of {} took {}us", full ? "all goals" : changed.size() + " goals",
+                (System.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Patch the rows of changed goals in place
+     *
+     * @return false if a goal's visibility changed and the list needs to be laid out again
+     */
+    private boolean refreshGoals(List<String> changedGoalIds) {
+        if (listMode) {
+            return goalListModel.refresh(changedGoalIds);
+        }
+
+        for (String id : changedGoalIds) {
+            GoalView view = goalViews.get(id);
+            if (view == null || !visibleGoalIds.contains(id)) {
+                // Not on screen, filtered out by search
+                continue;
+            }
+
+            if (view.goal.isCompleted()) {
+                // Completed goals are hidden
+                return false;
+            }
+
+            view.update(view.goal);
+        }
+
+        return true;
     }
 
     private void openAddGoalDialog() {
@@ -297,8 +803,8 @@ public class GoalTrackerPanel extends PluginPanel {
     }
 
     private void acknowledgeGoalCompletion(Goal goal) {
+        // The plugin refreshes the goal's row once acknowledged
         plugin.acknowledgeGoal(goal);
-        rebuild();
     }
 
 //    public void showGoalCompletedNotification(Goal goal)
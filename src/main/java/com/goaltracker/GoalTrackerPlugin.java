@@ -3,26 +3,50 @@ package com.goaltracker;
 import com.google.inject.Provides;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
+import net.runelite.api.NPC;
+import net.runelite.api.Quest;
 import net.runelite.api.Skill;
+import net.runelite.api.VarPlayer;
+import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.NpcLootReceived;
+import net.runelite.client.events.RuneScapeProfileChanged;
+import net.runelite.client.game.ItemManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
+import net.runelite.client.util.Text;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.regex.Pattern;
 
 @Slf4j
 @PluginDescriptor(
@@ -44,20 +68,72 @@ public class GoalTrackerPlugin extends Plugin
 	@Inject
 	private ConfigManager configManager;
 
+	@Inject
+	private ScheduledExecutorService executor;
+
+	@Inject
+	private ClientThread clientThread;
+
+	@Inject
+	private ItemManager itemManager;
+
 	private NavigationButton navButton;
 	private GoalTrackerPanel panel;
 	private final List<Goal> goals = new ArrayList<>();
 	private final Map<GoalType, List<Goal>> goalsByCategory = new HashMap<>();
-	private final GoalManager goalManager = new GoalManager();
+	private final Map<Skill, List<SkillGoal>> skillGoals = new EnumMap<>(Skill.class);
+	private final ItemPriceCache itemPrices = new ItemPriceCache();
+	private final ItemCountIndex itemCounts = new ItemCountIndex(itemPrices);
+	private final GoalGraph goalGraph = new GoalGraph();
+	private final CompositeGoalIndex compositeGoals = new CompositeGoalIndex();
+	private final VarGoalIndex varGoals = new VarGoalIndex();
+	private final KillCountIndex killCounts = new KillCountIndex();
+	private QuestVarTable questVars;
+	// Combat achievement tasks for the goal dialog, read from the cache on the first login
+	private volatile CombatAchievementTable combatAchievements = CombatAchievementTable.EMPTY;
+	// Quest goals whose quest var is not in the table, checked once in a while after vars change
+	private final List<Goal> unmappedQuestGoals = new ArrayList<>();
+	private boolean questVarsChanged;
+	private int ticksSinceQuestSweep;
+	// Last seen remaining slayer task amount, -1 until seen since login
+	private int slayerTaskSize = -1;
+	// Last seen slayer task creature, -1 until seen since login
+	private int slayerTaskCreature = -1;
+	// Set when item counts may be missing changes that happened before goals were loaded
+	private volatile boolean itemCountsStale = true;
+	// Set when a container was first counted, so wealth goals move their rate baselines on the next evaluation
+	private boolean wealthBaselineStale;
+	// Storage of the active profile's goals, null until a profile is known
+	private ProfileGoals activeProfile;
+	private GoalManager goalManager;
+	private ProgressJournal journal;
+	// Recently active profiles, least recently used first, kept so switching back does not reload
+	private final Map<String, ProfileGoals> profiles = new LinkedHashMap<>(8, 0.75f, true);
+	private volatile boolean goalsLoaded;
+	// Goals added while no profile's goals were loaded, merged into the next profile loaded
+	private final List<Goal> unloadedAdditions = new ArrayList<>();
+	// Incremented per load so a stale load does not publish its goals
+	private volatile int loadGeneration;
+
+	// Goals whose inputs changed since the last tick, evaluated once per tick
+	private final Map<String, Goal> dirtyGoals = new LinkedHashMap<>();
+	// Copy of the goal list for the panel, replaced on the client thread when goals or locks change
+	private volatile GoalListSnapshot goalList = GoalListSnapshot.EMPTY;
 
 	private static final String CONFIG_GROUP = "goaltracker";
-	private static final int UPDATE_INTERVAL = 5; // Game ticks
-	private int tickCounter = 0;
+	private static final Path DATA_DIR = RuneLite.RUNELITE_DIR.toPath().resolve("goal-tracker");
+	private static final Path PROFILES_DIR = DATA_DIR.resolve("profiles");
+	private static final int MAX_CACHED_PROFILES = 3;
+	// Ticks between checks of the quest goals missing from the quest var table
+	private static final int QUEST_SWEEP_TICKS = 10;
+	// "You've completed 12 tasks and received 15 points, giving you a total of 240; ..."
+	private static final Pattern SLAYER_TASK_COMPLETE_PATTERN = Pattern.compile("You've completed (?:at least )?[\\d,]+ (?:Wilderness )?tasks?");
 
 	@Override
 	protected void startUp() throws Exception
 	{
 		log.info("HERE!@#!@#");
+		questVars = QuestVarTable.load();
 		panel = new GoalTrackerPanel(this);
 
 		final BufferedImage icon = ImageUtil.loadImageResource(getClass(), "/goal_icon.png");
@@ -70,7 +146,13 @@ public class GoalTrackerPlugin extends Plugin
 				.build();
 
 		clientToolbar.addNavigation(navButton);
-		loadGoals();
+
+		// Goals are loaded once the profile is known, which is already the case if logged in
+		clientThread.invokeLater(() ->
+		{
+			switchProfile(configManager.getRSProfileKey());
+			loadCombatAchievements();
+		});
 
 		log.info("Goal Tracker plugin started!");
 	}
@@ -78,7 +160,29 @@ public class GoalTrackerPlugin extends Plugin
 	@Override
 	protected void shutDown() throws Exception
 	{
-		saveGoals();
+		// Goals are only changed on the client thread, and are dropped so a restart loads them afresh
+		clientThread.invoke(() ->
+		{
+			saveGoals(true);
+			for (ProfileGoals profile : profiles.values())
+			{
+				// After the save staged above, the executor runs tasks in order
+				executor.execute(profile::close);
+			}
+			profiles.clear();
+			activeProfile = null;
+			goalManager = null;
+			journal = null;
+			goalsLoaded = false;
+			loadGeneration++;
+
+			goals.clear();
+			unloadedAdditions.clear();
+			clearGoalIndexes();
+			goalGraph.rebuild(goals);
+			compositeGoals.rebuild(goals);
+			goalList = GoalListSnapshot.EMPTY;
+		});
 		clientToolbar.removeNavigation(navButton);
 		log.info("Goal Tracker plugin stopped!");
 	}
@@ -88,29 +192,201 @@ public class GoalTrackerPlugin extends Plugin
 	{
 		if (gameStateChanged.getGameState() == GameState.LOGGED_IN)
 		{
-			// Update all goals when logging in
-			updateAllGoals();
+			// Logging into another account switches to its goals
+			switchProfile(configManager.getRSProfileKey());
+
+			// Re-evaluate everything on login, nothing is known about the account yet
+			markAllGoalsDirty();
+
+			loadCombatAchievements();
+		}
+		else if (gameStateChanged.getGameState() == GameState.LOGIN_SCREEN)
+		{
+			// Vars are reset on logout, which must not count as finishing a task
+			slayerTaskSize = -1;
+			slayerTaskCreature = -1;
 		}
 	}
 
 	@Subscribe
 	public void onGameTick(GameTick event)
 	{
-		// Only update periodically to avoid unnecessary processing
-		if (++tickCounter % UPDATE_INTERVAL != 0)
+		// Prices are looked up a batch per tick, and adjust the container values they change
+		if (itemPrices.refreshBatch(itemManager, itemCounts, System.currentTimeMillis()))
 		{
-			return;
+			markWealthGoalsDirty();
 		}
 
-		tickCounter = 0;
-		updateAllGoals();
+		sweepUnmappedQuestGoals();
+		processDirtyGoals();
 	}
 
 	@Subscribe
 	public void onStatChanged(StatChanged statChanged)
 	{
-		// Update related skill goals when stats change
-		updateSkillGoals(statChanged.getSkill());
+		// Mark related skill goals when stats change
+		markSkillGoalsDirty(statChanged.getSkill());
+		recordSkillRates(statChanged.getSkill(), statChanged.getXp());
+	}
+
+	@Subscribe
+	public void onItemContainerChanged(ItemContainerChanged event)
+	{
+		ItemGoalType changedType = itemCounts.update(event.getContainerId(), event.getItemContainer());
+		if (changedType == null)
+		{
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		// A container's first contents were there all along, so they move the rates' baselines instead of their rates
+		boolean firstPopulation = itemCounts.isFirstPopulation();
+
+		// Item goals are indexed by category, so a container change never walks the other goals
+		for (Goal goal : goalsByCategory.getOrDefault(GoalType.ITEM, Collections.emptyList()))
+		{
+			if (goal instanceof ItemGoal)
+			{
+				ItemGoalType itemGoalType = ((ItemGoal) goal).getItemGoalType();
+				if (itemGoalType == changedType || itemGoalType == ItemGoalType.ALL)
+				{
+					markDirty(goal);
+					int count = itemCounts.getCount(itemGoalType, ((ItemGoal) goal).getItemId());
+					if (firstPopulation)
+					{
+						goal.resetRate(now, count);
+					}
+					else
+					{
+						goal.recordRate(now, count);
+					}
+				}
+			}
+		}
+
+		wealthBaselineStale |= firstPopulation;
+		markWealthGoalsDirty();
+	}
+
+	@Subscribe
+	public void onVarbitChanged(VarbitChanged event)
+	{
+		if (event.getVarpId() == VarPlayer.SLAYER_TASK_SIZE)
+		{
+			int previous = slayerTaskSize;
+			slayerTaskSize = event.getValue();
+			for (Goal goal : varGoals.getVarpGoals(VarPlayer.SLAYER_TASK_SIZE))
+			{
+				if (goal instanceof CombatGoal)
+				{
+					((CombatGoal) goal).slayerTaskChanged(previous, slayerTaskSize);
+				}
+			}
+		}
+		else if (event.getVarpId() == VarPlayer.SLAYER_TASK_CREATURE)
+		{
+			int previous = slayerTaskCreature;
+			slayerTaskCreature = event.getValue();
+			// A different creature is a new task, even if its amount never went through zero
+			if (previous != -1 && slayerTaskCreature != previous && slayerTaskCreature != 0)
+			{
+				for (Goal goal : varGoals.getVarpGoals(VarPlayer.SLAYER_TASK_SIZE))
+				{
+					if (goal instanceof CombatGoal)
+					{
+						((CombatGoal) goal).slayerTaskAssigned();
+						markDirty(goal);
+					}
+				}
+			}
+		}
+
+		// Only the goals subscribed to the changed var are re-evaluated
+		for (Goal goal : varGoals.getVarpGoals(event.getVarpId()))
+		{
+			markDirty(goal);
+		}
+
+		if (event.getVarbitId() != -1)
+		{
+			for (Goal goal : varGoals.getVarbitGoals(event.getVarbitId()))
+			{
+				markDirty(goal);
+			}
+		}
+
+		// Any var could be the progress of a quest missing from the table
+		questVarsChanged = true;
+	}
+
+	@Subscribe
+	public void onChatMessage(ChatMessage chatMessage)
+	{
+		if (chatMessage.getType() != ChatMessageType.GAMEMESSAGE && chatMessage.getType() != ChatMessageType.SPAM)
+		{
+			return;
+		}
+
+		// Slayer tasks count as finished on their completion message, cancelling one sends none
+		if (SLAYER_TASK_COMPLETE_PATTERN.matcher(Text.removeTags(chatMessage.getMessage())).find())
+		{
+			for (Goal goal : varGoals.getVarpGoals(VarPlayer.SLAYER_TASK_SIZE))
+			{
+				if (goal instanceof CombatGoal)
+				{
+					((CombatGoal) goal).slayerTaskCompleted();
+					markDirty(goal);
+				}
+			}
+		}
+
+		// Kill counts are reported through game messages
+		for (CombatGoal goal : killCounts.onChatMessage(chatMessage.getMessage()))
+		{
+			markDirty(goal);
+		}
+	}
+
+	@Subscribe
+	public void onNpcLootReceived(NpcLootReceived event)
+	{
+		NPC npc = event.getNpc();
+		for (CombatGoal goal : killCounts.onNpcKilled(npc.getId(), npc.getName()))
+		{
+			markDirty(goal);
+		}
+	}
+
+	@Subscribe
+	public void onRuneScapeProfileChanged(RuneScapeProfileChanged event)
+	{
+		clientThread.invoke(() -> switchProfile(configManager.getRSProfileKey()));
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (!CONFIG_GROUP.equals(event.getGroup()))
+		{
+			return;
+		}
+
+		if ("binarySnapshot".equals(event.getKey()))
+		{
+			clientThread.invoke(() ->
+			{
+				for (ProfileGoals profile : profiles.values())
+				{
+					profile.getManager().setSnapshotFile(config.binarySnapshot() ? profile.getSnapshotFile() : null);
+				}
+				saveGoals();
+			});
+		}
+		else if ("compactListThreshold".equals(event.getKey()))
+		{
+			// Whether goals show as rows or as the compact list is only decided on a full rebuild
+			panel.updateGoalList();
+		}
 	}
 
 	@Provides
@@ -119,84 +395,402 @@ public class GoalTrackerPlugin extends Plugin
 		return configManager.getConfig(GoalTrackerConfig.class);
 	}
 
+	/**
+	 * Add a goal from any thread, it is added on the client thread where goals are evaluated
+	 */
 	public void addGoal(Goal goal)
 	{
-		goals.add(goal);
+		clientThread.invoke(() ->
+		{
+			if (!goalsLoaded)
+			{
+				// Kept for the profile loaded next
+				unloadedAdditions.add(goal);
+			}
+			goals.add(goal);
+			indexGoal(goal);
+			goalGraph.rebuild(goals);
+			compositeGoals.rebuild(goals);
 
-		// Add to category map
-		goalsByCategory.computeIfAbsent(goal.getType(), k -> new ArrayList<>()).add(goal);
+			// Evaluate progress on the next tick
+			markDirty(goal);
+
+			// Save goals to config
+			saveGoals();
 
-		// Update goal progress
-		updateGoalProgress(goal);
+			// Refresh UI
+			publishGoalList();
+			panel.updateGoalList();
+		});
+	}
+
+	/**
+	 * Remove a goal from any thread, it is removed on the client thread where goals are evaluated
+	 */
+	public void removeGoal(Goal goal)
+	{
+		clientThread.invoke(() -> removeGoalNow(goal));
+	}
+
+	private void removeGoalNow(Goal goal)
+	{
+		goals.remove(goal);
+		unloadedAdditions.remove(goal);
+		unindexGoal(goal);
+		if (journal != null)
+		{
+			journal.remove(goal.getId());
+		}
+
+		// Composites containing this goal lose it as a child, and may fall back to in progress,
+		// so they are settled before the goals that require them are re-locked
+		for (CompositeGoal parent : compositeGoals.getParents(goal.getId()))
+		{
+			parent.setChildIds(without(parent.getChildIds(), goal.getId()));
+			parent.setDirty(true);
+		}
+		compositeGoals.rebuild(goals);
+
+		// Goals that required this one no longer do. The lists are replaced rather than changed in place,
+		// since a cached profile may still share them
+		for (String dependentId : goalGraph.getDependents(goal.getId()))
+		{
+			Goal dependent = goalGraph.getGoal(dependentId);
+			if (dependent != null)
+			{
+				dependent.setPrerequisiteIds(without(dependent.getPrerequisiteIds(), goal.getId()));
+				dependent.setDirty(true);
+			}
+		}
+		goalGraph.rebuild(goals);
+
+		synchronized (dirtyGoals)
+		{
+			dirtyGoals.remove(goal.getId());
+		}
 
 		// Save goals to config
 		saveGoals();
 
 		// Refresh UI
-		panel.rebuild();
+		publishGoalList();
+		panel.updateGoalList();
 	}
 
-	public void removeGoal(Goal goal)
+	private static List<String> without(List<String> ids, String id)
 	{
-		goals.remove(goal);
+		List<String> remaining = new ArrayList<>(ids);
+		remaining.remove(id);
+		return remaining;
+	}
 
+	/**
+	 * The goals as of the last change, safe to read from any thread
+	 */
+	public List<Goal> getGoals()
+	{
+		return goalList.getGoals();
+	}
+
+	GoalListSnapshot getGoalList()
+	{
+		return goalList;
+	}
+
+	private void publishGoalList()
+	{
+		goalList = GoalListSnapshot.of(goals, goalsByCategory, goalGraph, goalList);
+	}
+
+	private void indexGoal(Goal goal)
+	{
+		// Add to category map
+		goalsByCategory.computeIfAbsent(goal.getType(), k -> new ArrayList<>()).add(goal);
+
+		if (goal instanceof SkillGoal && ((SkillGoal) goal).getSkill() != null)
+		{
+			skillGoals.computeIfAbsent(((SkillGoal) goal).getSkill(), k -> new ArrayList<>()).add((SkillGoal) goal);
+		}
+
+		if (goal instanceof QuestGoal && ((QuestGoal) goal).getQuest() != null)
+		{
+			Quest quest = ((QuestGoal) goal).getQuest();
+			if (questVars.getVarp(quest) != -1)
+			{
+				varGoals.subscribeVarp(questVars.getVarp(quest), goal);
+			}
+			if (questVars.getVarbit(quest) != -1)
+			{
+				varGoals.subscribeVarbit(questVars.getVarbit(quest), goal);
+			}
+			if (questVars.getVarp(quest) == -1 && questVars.getVarbit(quest) == -1)
+			{
+				// Miniquests and quests not in the table do not change the quest points either
+				unmappedQuestGoals.add(goal);
+			}
+			// Completing any quest changes the quest points
+			varGoals.subscribeVarp(VarPlayer.QUEST_POINTS, goal);
+		}
+		else if (goal instanceof CombatGoal && ((CombatGoal) goal).getCombatGoalType() != null)
+		{
+			CombatGoalType combatGoalType = ((CombatGoal) goal).getCombatGoalType();
+			if (combatGoalType == CombatGoalType.SLAYER_TASK || combatGoalType == CombatGoalType.SLAYER_TASKS)
+			{
+				varGoals.subscribeVarp(VarPlayer.SLAYER_TASK_SIZE, goal);
+			}
+			else
+			{
+				killCounts.add((CombatGoal) goal);
+			}
+		}
+		else if (goal instanceof AchievementGoal && ((AchievementGoal) goal).getVarType() != null)
+		{
+			AchievementGoal achievementGoal = (AchievementGoal) goal;
+			if (achievementGoal.getVarType() == AchievementVarType.VARBIT)
+			{
+				varGoals.subscribeVarbit(achievementGoal.getVarId(), goal);
+			}
+			else
+			{
+				varGoals.subscribeVarp(achievementGoal.getVarId(), goal);
+			}
+		}
+	}
+
+	private void unindexGoal(Goal goal)
+	{
 		List<Goal> categoryGoals = goalsByCategory.get(goal.getType());
 		if (categoryGoals != null)
 		{
 			categoryGoals.remove(goal);
 		}
 
-		// Save goals to config
-		saveGoals();
+		if (goal instanceof SkillGoal)
+		{
+			List<SkillGoal> goalsForSkill = skillGoals.get(((SkillGoal) goal).getSkill());
+			if (goalsForSkill != null)
+			{
+				goalsForSkill.remove(goal);
+			}
+		}
 
-		// Refresh UI
-		panel.rebuild();
+		if (goal instanceof CombatGoal)
+		{
+			killCounts.remove((CombatGoal) goal);
+		}
+		varGoals.unsubscribe(goal);
+		unmappedQuestGoals.remove(goal);
 	}
 
-	public List<Goal> getGoals()
+	private void markSkillGoalsDirty(Skill skill)
 	{
-		return new ArrayList<>(goals);
+		// Mark only goals related to the changed skill
+		for (SkillGoal goal : skillGoals.getOrDefault(skill, Collections.emptyList()))
+		{
+			markDirty(goal);
+		}
+
+		// Total level and total experience goals depend on every skill
+		if (skill != Skill.OVERALL)
+		{
+			for (SkillGoal goal : skillGoals.getOrDefault(Skill.OVERALL, Collections.emptyList()))
+			{
+				markDirty(goal);
+			}
+		}
 	}
 
-	public List<Goal> getGoalsByCategory(GoalType category)
+	private void recordSkillRates(Skill skill, int xp)
 	{
-		return goalsByCategory.getOrDefault(category, new ArrayList<>());
+		long now = System.currentTimeMillis();
+		for (SkillGoal goal : skillGoals.getOrDefault(skill, Collections.emptyList()))
+		{
+			goal.recordRate(now, xp);
+		}
+
+		List<SkillGoal> overallGoals = skillGoals.get(Skill.OVERALL);
+		if (overallGoals != null && !overallGoals.isEmpty())
+		{
+			long totalXp = client.getOverallExperience();
+			for (SkillGoal goal : overallGoals)
+			{
+				goal.recordRate(now, totalXp);
+			}
+		}
 	}
 
-	public void updateAllGoals()
+	private void markDirty(Goal goal)
 	{
-		if (client == null || client.getGameState() != GameState.LOGGED_IN)
+		synchronized (dirtyGoals)
+		{
+			dirtyGoals.put(goal.getId(), goal);
+		}
+	}
+
+	private void loadCombatAchievements()
+	{
+		if (combatAchievements.isEmpty() && client.getGameState() == GameState.LOGGED_IN)
+		{
+			// Only the goal dialog's picker depends on the table, a cache it cannot read must not stop the login
+			try
+			{
+				combatAchievements = CombatAchievementTable.load(client);
+			}
+			catch (RuntimeException e)
+			{
+				log.warn("Error reading combat achievement tasks", e);
+			}
+		}
+	}
+
+	/**
+	 * Re-evaluate the quest goals missing from the quest var table, at most every few ticks and
+	 * only after a var changed, since their quest's state could have changed with any var
+	 */
+	private void sweepUnmappedQuestGoals()
+	{
+		if (++ticksSinceQuestSweep < QUEST_SWEEP_TICKS || !questVarsChanged || unmappedQuestGoals.isEmpty())
 		{
 			return;
 		}
 
-		for (Goal goal : goals)
+		questVarsChanged = false;
+		ticksSinceQuestSweep = 0;
+		for (Goal goal : unmappedQuestGoals)
 		{
-			updateGoalProgress(goal);
+			if (!goal.isCompleted())
+			{
+				markDirty(goal);
+			}
 		}
+	}
 
-		// Refresh UI if needed
-		panel.updateGoalList();
+	private void markWealthGoalsDirty()
+	{
+		for (Goal goal : goalsByCategory.getOrDefault(GoalType.WEALTH, Collections.emptyList()))
+		{
+			markDirty(goal);
+		}
 	}
 
-	private void updateSkillGoals(Skill skill)
+	private void markAllGoalsDirty()
 	{
-		if (client == null || client.getGameState() != GameState.LOGGED_IN)
+		synchronized (dirtyGoals)
+		{
+			itemCountsStale = true;
+			for (Goal goal : goals)
+			{
+				dirtyGoals.put(goal.getId(), goal);
+			}
+		}
+	}
+
+	/**
+	 * Evaluate the goals marked dirty since the last tick, refreshing the panel only if one of them changed
+	 */
+	private void processDirtyGoals()
+	{
+		// Goals are evaluated once the profile's goals are loaded, which marks them all dirty
+		if (client == null || client.getGameState() != GameState.LOGGED_IN || !goalsLoaded)
 		{
 			return;
 		}
 
-		// Update only goals related to the changed skill
-		for (Goal goal : goals)
+		List<Goal> pending;
+		synchronized (dirtyGoals)
 		{
-			if (goal.getType() == GoalType.SKILL && ((SkillGoal)goal).getSkill() == skill)
+			if (dirtyGoals.isEmpty())
 			{
-				updateGoalProgress(goal);
+				return;
 			}
+
+			pending = new ArrayList<>(dirtyGoals.values());
+			dirtyGoals.clear();
 		}
 
-		// Refresh UI if needed
-		panel.updateGoalList();
+		refreshStaleItemCounts();
+
+		long now = System.currentTimeMillis();
+		List<String> changed = new ArrayList<>();
+		// Goals whose rate or history may have moved, copied into the panel's goal list afterwards
+		List<Goal> evaluated = new ArrayList<>(pending);
+		boolean unsaved = false;
+		// Whether a goal was locked or unlocked, which the panel's copy of the goal list records
+		boolean locksChanged = false;
+		for (Goal goal : pending)
+		{
+			int previousProgress = goal.getCurrentProgress();
+			GoalStatus previousStatus = goal.getStatus();
+
+			updateGoalProgress(goal);
+
+			boolean progressChanged = goal.getCurrentProgress() != previousProgress;
+			if (progressChanged || goal.getHistory() == null)
+			{
+				goal.recordProgress(now);
+				journal.append(goal.getId(), now, goal.getCurrentProgress());
+			}
+
+			if (progressChanged || goal.getStatus() != previousStatus)
+			{
+				changed.add(goal.getId());
+
+				// Composites containing this goal fold the change into their totals
+				for (CompositeGoal parent : compositeGoals.goalChanged(goal))
+				{
+					parent.recordProgress(now);
+					journal.append(parent.getId(), now, parent.getCurrentProgress());
+					changed.add(parent.getId());
+					evaluated.add(parent);
+					for (Goal dependent : goalGraph.goalChanged(parent))
+					{
+						changed.add(dependent.getId());
+						locksChanged = true;
+					}
+				}
+			}
+
+			if (goal.getStatus() != previousStatus)
+			{
+				// Completion can lock or unlock the goals that depend on this one
+				for (Goal dependent : goalGraph.goalChanged(goal))
+				{
+					changed.add(dependent.getId());
+					locksChanged = true;
+				}
+			}
+
+			// Goals can change persisted state without progressing, such as a new slayer task baseline
+			unsaved |= goal.isDirty();
+		}
+		// Every wealth goal was marked dirty with the container, and has now moved its baseline
+		wealthBaselineStale = false;
+
+		if (unsaved || !changed.isEmpty())
+		{
+			// Progress and completion are persisted with the goal
+			saveGoals();
+		}
+
+		if (locksChanged)
+		{
+			publishGoalList();
+		}
+		goalList = goalList.withProgress(evaluated);
+
+		if (!changed.isEmpty())
+		{
+			panel.updateGoalList(changed);
+		}
+	}
+
+	private void refreshStaleItemCounts()
+	{
+		if (itemCountsStale)
+		{
+			wealthBaselineStale |= itemCounts.refresh(client);
+			itemCountsStale = false;
+		}
 	}
 
 	private void updateGoalProgress(Goal goal)
@@ -206,10 +800,30 @@ public class GoalTrackerPlugin extends Plugin
 			return;
 		}
 
-		goal.updateProgress(client);
+		if (goal instanceof ItemGoal)
+		{
+			((ItemGoal) goal).updateProgress(itemCounts);
+		}
+		else if (goal instanceof WealthGoal)
+		{
+			WealthGoal wealthGoal = (WealthGoal) goal;
+			wealthGoal.updateProgress(itemCounts, itemPrices);
+			if (wealthBaselineStale)
+			{
+				goal.resetRate(System.currentTimeMillis(), wealthGoal.getCurrentWealth());
+			}
+			else
+			{
+				goal.recordRate(System.currentTimeMillis(), wealthGoal.getCurrentWealth());
+			}
+		}
+		else
+		{
+			goal.updateProgress(client);
+		}
 
 		// Check if goal is newly completed
-		if (goal.isCompleted() && !goal.isAcknowledged())
+		if (goal.isCompleted() && !goal.isAcknowledged() && goal.getCompletionDate() == null)
 		{
 			goal.setCompletionDate(Instant.now());
 //			panel.showGoalCompletedNotification(goal);
@@ -218,36 +832,227 @@ public class GoalTrackerPlugin extends Plugin
 
 	private void saveGoals()
 	{
-		goalManager.saveGoals(goals, configManager, CONFIG_GROUP);
+		saveGoals(false);
+	}
+
+	/**
+	 * Serialize the changed goals for the executor to write
+	 *
+	 * @param snapshotNow whether to also bring the snapshot up to date, before the goals are put away
+	 */
+	private void saveGoals(boolean snapshotNow)
+	{
+		// Saving before loading finishes would overwrite the stored goals with a partial list
+		if (!goalsLoaded)
+		{
+			return;
+		}
+
+		goalManager.saveGoalsLater(goals, configManager, CONFIG_GROUP, snapshotNow);
 	}
 
-	private void loadGoals()
+	/**
+	 * Make a profile's goals the active ones, from memory if it was active recently and from storage otherwise
+	 */
+	private void switchProfile(String profileKey)
 	{
+		if (profileKey == null || (activeProfile != null && profileKey.equals(activeProfile.getProfileKey())))
+		{
+			return;
+		}
+
+		if (activeProfile != null && goalsLoaded)
+		{
+			// Keep the previous profile's goals for switching back, its pending save goes to its own keys
+			saveGoals(true);
+			activeProfile.setGoals(new ArrayList<>(goals));
+			goals.clear();
+		}
+
+		ProfileGoals profile = profiles.get(profileKey);
+		if (profile == null)
+		{
+			profile = new ProfileGoals(profileKey, PROFILES_DIR.resolve(profileDirectory(profileKey)), executor);
+			profile.getManager().setSnapshotFile(config.binarySnapshot() ? profile.getSnapshotFile() : null);
+			profiles.put(profileKey, profile);
+		}
+		activeProfile = profile;
+		goalManager = profile.getManager();
+		journal = profile.getJournal();
+
+		evictProfiles();
+
+		log.debug("Switched to profile {}", profileKey);
+		loadGoals(profile);
+	}
+
+	private void evictProfiles()
+	{
+		Iterator<ProfileGoals> iterator = profiles.values().iterator();
+		while (profiles.size() > MAX_CACHED_PROFILES && iterator.hasNext())
+		{
+			ProfileGoals profile = iterator.next();
+			if (profile != activeProfile)
+			{
+				iterator.remove();
+				executor.execute(profile::close);
+			}
+		}
+	}
+
+	private static String profileDirectory(String profileKey)
+	{
+		return profileKey.replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+
+	/**
+	 * Load a profile's goals on the executor and publish them on the client thread, so neither startup nor the client waits on deserialization
+	 */
+	private void loadGoals(ProfileGoals profile)
+	{
+		// Until loaded, the list shows only the goals added meanwhile, which are kept for this profile
 		goals.clear();
-		goalsByCategory.clear();
+		clearGoalIndexes();
+		for (Goal goal : unloadedAdditions)
+		{
+			goals.add(goal);
+			indexGoal(goal);
+		}
+		goalGraph.rebuild(goals);
+		compositeGoals.rebuild(goals);
+		goalsLoaded = false;
+		publishGoalList();
+		panel.updateGoalList();
 
-		List<Goal> loadedGoals = goalManager.loadGoals(configManager, CONFIG_GROUP);
+		final int generation = ++loadGeneration;
+		if (profile.getGoals() != null)
+		{
+			// Recently active, its goals and histories are still in memory
+			publishGoals(generation, profile.getGoals(), Collections.emptyMap());
+			return;
+		}
+
+		executor.execute(() ->
+		{
+			GoalManager manager = profile.getManager();
+			ProgressJournal profileJournal = profile.getJournal();
+			List<Goal> loadedGoals = manager.loadGoals(configManager, CONFIG_GROUP);
+
+			Map<String, ProgressHistory> histories;
+			try
+			{
+				if (manager.isMigrated())
+				{
+					// The goals' progress history moves with them
+					profileJournal.adopt(DATA_DIR);
+				}
+				histories = profileJournal.open();
+			}
+			catch (IOException e)
+			{
+				log.warn("Error opening progress journal", e);
+				// History is still read from the last snapshot, new samples are not kept
+				histories = profileJournal.replay();
+			}
+
+			clientThread.invokeLater(() -> publishGoals(generation, loadedGoals, histories));
+		});
+	}
+
+	private void publishGoals(int generation, List<Goal> loadedGoals, Map<String, ProgressHistory> histories)
+	{
+		if (generation != loadGeneration)
+		{
+			// Superseded by a newer load or the plugin was restarted
+			return;
+		}
+
+		goals.clear();
+		clearGoalIndexes();
+
+		Set<String> loadedIds = new HashSet<>();
 		for (Goal goal : loadedGoals)
 		{
+			ProgressHistory history = histories.get(goal.getId());
+			if (history != null)
+			{
+				goal.setHistory(history);
+			}
 			goals.add(goal);
-			goalsByCategory.computeIfAbsent(goal.getType(), k -> new ArrayList<>()).add(goal);
+			indexGoal(goal);
+			loadedIds.add(goal.getId());
+		}
+
+		// Goals the user added while no profile was loaded join this one, unless it already has them
+		boolean added = false;
+		for (Goal goal : unloadedAdditions)
+		{
+			if (loadedIds.add(goal.getId()))
+			{
+				goals.add(goal);
+				indexGoal(goal);
+				added = true;
+			}
 		}
+		unloadedAdditions.clear();
 
-		// Update all goals after loading
-		if (client != null && client.getGameState() == GameState.LOGGED_IN)
+		goalGraph.rebuild(goals);
+		compositeGoals.rebuild(goals);
+		// A copy, the profile's list is brought up to date when switching away from it
+		activeProfile.setGoals(new ArrayList<>(goals));
+		goalsLoaded = true;
+
+		log.debug("Loaded {} goals", loadedGoals.size());
+
+		if (added)
 		{
-			updateAllGoals();
+			saveGoals();
 		}
+
+		// Evaluate all goals on the next tick after loading
+		markAllGoalsDirty();
+		publishGoalList();
+		panel.updateGoalList();
 	}
 
+	private void clearGoalIndexes()
+	{
+		goalsByCategory.clear();
+		skillGoals.clear();
+		varGoals.clear();
+		killCounts.clear();
+		unmappedQuestGoals.clear();
+		synchronized (dirtyGoals)
+		{
+			dirtyGoals.clear();
+		}
+	}
+
+	/**
+	 * Acknowledge a completed goal from any thread
+	 */
 	public void acknowledgeGoal(Goal goal)
 	{
-		goal.setAcknowledged(true);
-		saveGoals();
+		clientThread.invoke(() ->
+		{
+			goal.setAcknowledged(true);
+			saveGoals();
+			panel.updateGoalList(Collections.singletonList(goal.getId()));
+		});
+	}
+
+	CombatAchievementTable getCombatAchievements()
+	{
+		return combatAchievements;
 	}
 
 	public Client getClient()
 	{
 		return client;
 	}
+
+	public GoalTrackerConfig getConfig()
+	{
+		return config;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.goaltracker;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Streams polymorphic goals as {"type": ..., "goal": {...}}, so the type is known
+ * before the goal body is read and no intermediate JSON tree is built.
+ * Goals written flat by older versions, with the type somewhere inside, are still read.
+ */
+class GoalTypeAdapterFactory implements TypeAdapterFactory
+{
+    private static final String TYPE_FIELD = "type";
+    private static final String GOAL_FIELD = "goal";
+
+    /**
+     * The goal type of a stored name, failing as a parse error for a type this version does not know
+     */
+    static GoalType goalType(String name)
+    {
+        try
+        {
+            return GoalType.valueOf(name);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new JsonParseException("Unknown goal type: " + name, e);
+        }
+    }
+
+    static Class<? extends Goal> goalClass(GoalType goalType)
+    {
+        switch (goalType)
+        {
+            case SKILL:
+                return SkillGoal.class;
+            case ITEM:
+                return ItemGoal.class;
+            case COMBAT:
+                return CombatGoal.class;
+            case QUEST:
+                return QuestGoal.class;
+            case ACHIEVEMENT:
+                return AchievementGoal.class;
+            case COMPOSITE:
+                return CompositeGoal.class;
+            case WEALTH:
+                return WealthGoal.class;
+            // Add more cases for other goal types
+            default:
+                throw new JsonParseException("Unknown goal type: " + goalType);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+    {
+        if (type.getRawType() != Goal.class)
+        {
+            return null;
+        }
+
+        return (TypeAdapter<T>) new GoalAdapter(gson).nullSafe();
+    }
+
+    private static class GoalAdapter extends TypeAdapter<Goal>
+    {
+        private final Gson gson;
+        private final TypeAdapter<JsonElement> elementAdapter;
+        private final Map<GoalType, TypeAdapter<Goal>> delegates = new EnumMap<>(GoalType.class);
+
+        GoalAdapter(Gson gson)
+        {
+            this.gson = gson;
+            this.elementAdapter = gson.getAdapter(JsonElement.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Goal goal) throws IOException
+        {
+            out.beginObject();
+            out.name(TYPE_FIELD).value(goal.getType().name());
+            out.name(GOAL_FIELD);
+            delegate(goal.getType()).write(out, goal);
+            out.endObject();
+        }
+
+        @Override
+        public Goal read(JsonReader in) throws IOException
+        {
+            in.beginObject();
+
+            JsonObject legacy = null;
+            GoalType goalType = null;
+
+            String name = in.nextName();
+            if (TYPE_FIELD.equals(name))
+            {
+                goalType = goalType(in.nextString());
+
+                if (in.hasNext())
+                {
+                    name = in.nextName();
+                    if (GOAL_FIELD.equals(name))
+                    {
+                        Goal goal = delegate(goalType).read(in);
+                        skipRemaining(in);
+                        in.endObject();
+                        return goal;
+                    }
+
+                    legacy = new JsonObject();
+                    legacy.addProperty(TYPE_FIELD, goalType.name());
+                    legacy.add(name, elementAdapter.read(in));
+                }
+            }
+            else
+            {
+                legacy = new JsonObject();
+                legacy.add(name, elementAdapter.read(in));
+            }
+
+            // Flat goal from an older version, collect the rest of it to find the type
+            if (legacy == null)
+            {
+                legacy = new JsonObject();
+                legacy.addProperty(TYPE_FIELD, goalType.name());
+            }
+            while (in.hasNext())
+            {
+                legacy.add(in.nextName(), elementAdapter.read(in));
+            }
+            in.endObject();
+
+            JsonElement typeElement = legacy.get(TYPE_FIELD);
+            if (typeElement == null || typeElement.isJsonNull())
+            {
+                throw new JsonParseException("Goal has no type");
+            }
+
+            return delegate(goalType(typeElement.getAsString())).fromJsonTree(legacy);
+        }
+
+        private static void skipRemaining(JsonReader in) throws IOException
+        {
+            while (in.peek() == JsonToken.NAME)
+            {
+                in.nextName();
+                in.skipValue();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized TypeAdapter<Goal> delegate(GoalType goalType)
+        {
+            return delegates.computeIfAbsent(goalType, t -> (TypeAdapter<Goal>) gson.getAdapter(goalClass(t)));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.goaltracker;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Reads and writes Instants in the {"seconds": ..., "nanos": ...} shape reflective Gson used,
+ * without reflecting into java.time, which newer JDKs do not allow.
+ */
+class InstantTypeAdapter extends TypeAdapter<Instant>
+{
+    @Override
+    public void write(JsonWriter out, Instant instant) throws IOException
+    {
+        if (instant == null)
+        {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("seconds").value(instant.getEpochSecond());
+        out.name("nanos").value(instant.getNano());
+        out.endObject();
+    }
+
+    @Override
+    public Instant read(JsonReader in) throws IOException
+    {
+        switch (in.peek())
+        {
+            case NULL:
+                in.nextNull();
+                return null;
+            case NUMBER:
+                return Instant.ofEpochMilli(in.nextLong());
+            case STRING:
+                return Instant.parse(in.nextString());
+            default:
+                break;
+        }
+
+        long seconds = 0;
+        int nanos = 0;
+
+        in.beginObject();
+        while (in.hasNext())
+        {
+            switch (in.nextName())
+            {
+                case "seconds":
+                    seconds = in.nextLong();
+                    break;
+                case "nanos":
+                    nanos = in.nextInt();
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+}
@@ -0,0 +1,170 @@
+package com.goaltracker;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative int keys to int values, without boxing.
+ * Missing keys read as 0.
+ */
+class IntIntMap
+{
+    private static final int FREE = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    IntIntMap()
+    {
+        this(16);
+    }
+
+    IntIntMap(int expectedSize)
+    {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2, 16) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int get(int key)
+    {
+        int slot = find(key);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    public boolean containsKey(int key)
+    {
+        return find(key) >= 0;
+    }
+
+    public void put(int key, int value)
+    {
+        int slot = insertionSlot(key);
+        values[slot] = value;
+    }
+
+    /**
+     * Add delta to the value stored for key, saturating at Integer.MAX_VALUE
+     */
+    public void add(int key, int delta)
+    {
+        int slot = insertionSlot(key);
+        long sum = (long) values[slot] + delta;
+        values[slot] = (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    public void forEach(Visitor visitor)
+    {
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] != FREE)
+            {
+                visitor.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int find(int key)
+    {
+        if (key < 0)
+        {
+            return -1;
+        }
+
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask)
+        {
+            int k = keys[slot];
+            if (k == key)
+            {
+                return slot;
+            }
+            if (k == FREE)
+            {
+                return -1;
+            }
+        }
+    }
+
+    private int insertionSlot(int key)
+    {
+        if (key < 0)
+        {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+
+        if ((size + 1) * 2 > keys.length)
+        {
+            grow();
+        }
+
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask)
+        {
+            int k = keys[slot];
+            if (k == key)
+            {
+                return slot;
+            }
+            if (k == FREE)
+            {
+                keys[slot] = key;
+                values[slot] = 0;
+                size++;
+                return slot;
+            }
+        }
+    }
+
+    private void grow()
+    {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != FREE)
+            {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != FREE)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int mix(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    interface Visitor
+    {
+        void accept(int key, int value);
+    }
+}
@@ -0,0 +1,190 @@
+package com.goaltracker;
+
+import net.runelite.api.Client;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+
+/**
+ * Item id to quantity counts and total value for the inventory, bank and equipment.
+ * Each container is re-counted once when it changes, so item goals read their counts in O(1),
+ * and its value is adjusted by the items whose quantity changed rather than re-priced.
+ */
+class ItemCountIndex implements ItemPriceCache.PriceListener
+{
+    private final ItemPriceCache prices;
+    private final ContainerCounts inventory = new ContainerCounts(28);
+    private final ContainerCounts bank = new ContainerCounts(1024);
+    private final ContainerCounts equipment = new ContainerCounts(14);
+    // Whether the last update was the first count of its container since it was last empty
+    private boolean firstPopulation;
+
+    ItemCountIndex(ItemPriceCache prices)
+    {
+        this.prices = prices;
+    }
+
+    /**
+     * Re-count a changed container
+     *
+     * @return the goal type the container corresponds to, or null if it is not tracked
+     */
+    public ItemGoalType update(int containerId, ItemContainer container)
+    {
+        if (containerId == InventoryID.INVENTORY.getId())
+        {
+            firstPopulation = inventory.count(container);
+            return ItemGoalType.INVENTORY;
+        }
+        else if (containerId == InventoryID.BANK.getId())
+        {
+            firstPopulation = bank.count(container);
+            return ItemGoalType.BANK;
+        }
+        else if (containerId == InventoryID.EQUIPMENT.getId())
+        {
+            firstPopulation = equipment.count(container);
+            return ItemGoalType.EQUIPMENT;
+        }
+        else
+        {
+            firstPopulation = false;
+            return null;
+        }
+    }
+
+    /**
+     * Whether the last {@link #update} was the container's first count, such as the bank on
+     * first opening it after login. The counts jump by everything it holds, which was not gained.
+     */
+    public boolean isFirstPopulation()
+    {
+        return firstPopulation;
+    }
+
+    /**
+     * Re-count every tracked container from the client, used when no change events have been seen yet
+     *
+     * @return whether a container was counted for the first time
+     */
+    public boolean refresh(Client client)
+    {
+        boolean first = inventory.count(client.getItemContainer(InventoryID.INVENTORY));
+        first |= bank.count(client.getItemContainer(InventoryID.BANK));
+        first |= equipment.count(client.getItemContainer(InventoryID.EQUIPMENT));
+        return first;
+    }
+
+    public int getCount(ItemGoalType type, int itemId)
+    {
+        switch (type)
+        {
+            case INVENTORY:
+                return inventory.counts.get(itemId);
+            case BANK:
+                return bank.counts.get(itemId);
+            case EQUIPMENT:
+                return equipment.counts.get(itemId);
+            case ALL:
+                long total = (long) inventory.counts.get(itemId) + bank.counts.get(itemId) + equipment.counts.get(itemId);
+                return (int) Math.min(total, Integer.MAX_VALUE);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Total value of the items in a container, at the cached prices
+     */
+    public long getValue(ItemGoalType type)
+    {
+        switch (type)
+        {
+            case INVENTORY:
+                return inventory.value;
+            case BANK:
+                return bank.value;
+            case EQUIPMENT:
+                return equipment.value;
+            case ALL:
+                return inventory.value + bank.value + equipment.value;
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public void priceChanged(int itemId, int oldPrice, int newPrice)
+    {
+        long delta = (long) newPrice - oldPrice;
+        inventory.value += delta * inventory.counts.get(itemId);
+        bank.value += delta * bank.counts.get(itemId);
+        equipment.value += delta * equipment.counts.get(itemId);
+    }
+
+    private class ContainerCounts
+    {
+        // Current counts, and the previous counts' map reused for the next re-count
+        private IntIntMap counts;
+        private IntIntMap spare;
+        private long value;
+        private long valueDelta;
+        // Whether the container has been seen since login, a missing container reads as empty
+        private boolean populated;
+
+        ContainerCounts(int expectedSize)
+        {
+            counts = new IntIntMap(expectedSize);
+            spare = new IntIntMap(expectedSize);
+        }
+
+        /**
+         * @return whether this is the container's first count since it was last missing
+         */
+        boolean count(ItemContainer container)
+        {
+            IntIntMap previous = counts;
+            IntIntMap next = spare;
+            next.clear();
+
+            if (container != null)
+            {
+                for (Item item : container.getItems())
+                {
+                    if (item == null || item.getId() < 0 || item.getQuantity() <= 0)
+                    {
+                        continue;
+                    }
+
+                    next.add(item.getId(), item.getQuantity());
+                }
+            }
+
+            // Only items whose quantity changed are priced
+            valueDelta = 0;
+            previous.forEach((itemId, quantity) ->
+            {
+                int newQuantity = next.get(itemId);
+                if (newQuantity != quantity)
+                {
+                    valueDelta += (long) (newQuantity - quantity) * prices.get(itemId);
+                }
+            });
+            next.forEach((itemId, quantity) ->
+            {
+                if (!previous.containsKey(itemId))
+                {
+                    valueDelta += (long) quantity * prices.get(itemId);
+                }
+            });
+            value += valueDelta;
+
+            counts = next;
+            spare = previous;
+
+            boolean first = !populated && container != null;
+            populated = container != null;
+            return first;
+        }
+    }
+}
@@ -4,8 +4,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import net.runelite.api.Client;
 import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
 import net.runelite.api.ItemContainer;
-import net.runelite.api.ItemID;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -90,6 +90,15 @@ public class ItemGoal extends Goal
         checkCompletion();
     }
 
+    /**
+     * Update the goal's progress from pre-counted container contents
+     */
+    public void updateProgress(ItemCountIndex itemCounts)
+    {
+        setCurrentProgress(itemCounts.getCount(itemGoalType, itemId));
+        checkCompletion();
+    }
+
     private int getItemCount(ItemContainer container, int id)
     {
         int count = 0;
@@ -99,9 +108,8 @@ public class ItemGoal extends Goal
             return count;
         }
 
-        for (int i = 0; i < container.getItems().length; i++)
+        for (Item item : container.getItems())
         {
-            net.runelite.api.Item item = container.getItems()[i];
             if (item == null)
             {
                 continue;
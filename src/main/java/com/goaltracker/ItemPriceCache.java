@@ -0,0 +1,92 @@
+package com.goaltracker;
+
+import java.util.Arrays;
+import net.runelite.client.game.ItemManager;
+
+/**
+ * Item id to price, looked up from the item manager a batch at a time. Unknown items read as
+ * 0 until priced, and every known price is re-queued periodically to follow price changes.
+ */
+class ItemPriceCache
+{
+    private static final int BATCH_SIZE = 100;
+    private static final long REFRESH_INTERVAL_MS = 30 * 60 * 1000;
+
+    private final IntIntMap prices = new IntIntMap(1024);
+    // Items waiting to be priced, deduplicated through the queued set
+    private final IntIntMap queued = new IntIntMap(256);
+    private int[] queue = new int[256];
+    private int queueSize;
+    private long lastRefresh;
+
+    /**
+     * The cached price of an item, queuing it to be priced if it is not known yet
+     */
+    public int get(int itemId)
+    {
+        if (!prices.containsKey(itemId))
+        {
+            enqueue(itemId);
+        }
+        return prices.get(itemId);
+    }
+
+    /**
+     * Price up to one batch of queued items, reporting each changed price to the listener
+     *
+     * @return whether any price changed
+     */
+    public boolean refreshBatch(ItemManager itemManager, PriceListener listener, long now)
+    {
+        if (now - lastRefresh >= REFRESH_INTERVAL_MS)
+        {
+            lastRefresh = now;
+            prices.forEach((itemId, price) -> enqueue(itemId));
+        }
+
+        if (queueSize == 0)
+        {
+            return false;
+        }
+
+        boolean changed = false;
+        int end = Math.max(0, queueSize - BATCH_SIZE);
+        while (queueSize > end)
+        {
+            int itemId = queue[--queueSize];
+            queued.put(itemId, 0);
+
+            int oldPrice = prices.get(itemId);
+            // Noted items are priced as their unnoted form
+            int newPrice = itemManager.getItemPrice(itemManager.canonicalize(itemId));
+            prices.put(itemId, newPrice);
+
+            if (newPrice != oldPrice)
+            {
+                listener.priceChanged(itemId, oldPrice, newPrice);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void enqueue(int itemId)
+    {
+        if (queued.get(itemId) != 0)
+        {
+            return;
+        }
+
+        if (queueSize == queue.length)
+        {
+            queue = Arrays.copyOf(queue, queue.length * 2);
+        }
+        queue[queueSize++] = itemId;
+        queued.put(itemId, 1);
+    }
+
+    interface PriceListener
+    {
+        void priceChanged(int itemId, int oldPrice, int newPrice);
+    }
+}
@@ -0,0 +1,121 @@
+package com.goaltracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.runelite.client.util.Text;
+
+/**
+ * Routes kill count chat messages and npc kills to the kill goals tracking them. Every message
+ * goes through one precompiled pattern, then a single lookup by name, however many goals exist.
+ */
+class KillCountIndex
+{
+    // "Your Zulrah kill count is: 12.", "Your completed Chambers of Xeric count is: 3.", ...
+    private static final Pattern KILL_COUNT_PATTERN = Pattern.compile(
+        "Your (?:completed )?(.+?) (?:kill |harvest |lap |completion |success |chest )?count is: ([\\d,]+)");
+
+    // Lowercased npc or activity name to the boss kill goals reading its kill count
+    private final Map<String, List<CombatGoal>> killCountGoals = new HashMap<>();
+    // Npc id or lowercased name to the monster kill goals counting its deaths
+    private final Map<Integer, List<CombatGoal>> npcIdGoals = new HashMap<>();
+    private final Map<String, List<CombatGoal>> npcNameGoals = new HashMap<>();
+
+    public void add(CombatGoal goal)
+    {
+        String name = goal.getNpcName() == null ? null : goal.getNpcName().trim().toLowerCase();
+        switch (goal.getCombatGoalType())
+        {
+            case BOSS_KILLS:
+                if (name != null && !name.isEmpty())
+                {
+                    killCountGoals.computeIfAbsent(name, k -> new ArrayList<>()).add(goal);
+                }
+                break;
+            case MONSTER_KILLS:
+                if (goal.getNpcId() > 0)
+                {
+                    npcIdGoals.computeIfAbsent(goal.getNpcId(), k -> new ArrayList<>()).add(goal);
+                }
+                else if (name != null && !name.isEmpty())
+                {
+                    npcNameGoals.computeIfAbsent(name, k -> new ArrayList<>()).add(goal);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void remove(CombatGoal goal)
+    {
+        killCountGoals.values().forEach(list -> list.removeIf(g -> g.getId().equals(goal.getId())));
+        npcIdGoals.values().forEach(list -> list.removeIf(g -> g.getId().equals(goal.getId())));
+        npcNameGoals.values().forEach(list -> list.removeIf(g -> g.getId().equals(goal.getId())));
+    }
+
+    public void clear()
+    {
+        killCountGoals.clear();
+        npcIdGoals.clear();
+        npcNameGoals.clear();
+    }
+
+    /**
+     * Report a kill count message to the goals tracking it
+     *
+     * @return the goals the message was reported to
+     */
+    public List<CombatGoal> onChatMessage(String message)
+    {
+        if (killCountGoals.isEmpty() || !message.contains("count is:"))
+        {
+            return Collections.emptyList();
+        }
+
+        Matcher matcher = KILL_COUNT_PATTERN.matcher(Text.removeTags(message));
+        if (!matcher.find())
+        {
+            return Collections.emptyList();
+        }
+
+        List<CombatGoal> matched = killCountGoals.get(matcher.group(1).toLowerCase());
+        if (matched == null)
+        {
+            return Collections.emptyList();
+        }
+
+        int killCount = Integer.parseInt(matcher.group(2).replace(",", ""));
+        for (CombatGoal goal : matched)
+        {
+            goal.reportKillCount(killCount);
+        }
+        return matched;
+    }
+
+    /**
+     * Report a kill of an npc to the goals counting it
+     *
+     * @return the goals the kill was reported to
+     */
+    public List<CombatGoal> onNpcKilled(int npcId, String npcName)
+    {
+        List<CombatGoal> byId = npcIdGoals.getOrDefault(npcId, Collections.emptyList());
+        List<CombatGoal> byName = npcName == null ? Collections.emptyList()
+            : npcNameGoals.getOrDefault(npcName.toLowerCase(), Collections.emptyList());
+        if (byName.isEmpty())
+        {
+            byId.forEach(goal -> goal.addKills(1));
+            return byId;
+        }
+
+        List<CombatGoal> matched = new ArrayList<>(byId);
+        matched.addAll(byName);
+        matched.forEach(goal -> goal.addKills(1));
+        return matched;
+    }
+}
@@ -0,0 +1,41 @@
+package com.goaltracker;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Goals and their storage for one RuneScape profile. A profile is an account in one kind of
+ * world, so alts and beta or seasonal worlds each keep their own goals, journal and snapshot.
+ */
+@Getter
+class ProfileGoals
+{
+    private final String profileKey;
+    private final GoalManager manager;
+    private final ProgressJournal journal;
+    private final Path snapshotFile;
+
+    // The profile's goals as of when it was last active, or null until loaded
+    @Setter
+    private List<Goal> goals;
+
+    ProfileGoals(String profileKey, Path directory, ScheduledExecutorService executor)
+    {
+        this.profileKey = profileKey;
+        this.manager = new GoalManager(executor, profileKey);
+        this.journal = new ProgressJournal(directory, executor);
+        this.snapshotFile = directory.resolve("goals.bin");
+    }
+
+    /**
+     * Write out pending goal changes and progress samples, on the calling thread
+     */
+    void close()
+    {
+        manager.flush();
+        journal.close();
+    }
+}
@@ -0,0 +1,157 @@
+package com.goaltracker;
+
+/**
+ * Timestamped progress samples for one goal, held in fixed-size primitive ring buffers.
+ * <p>
+ * Recent samples are kept individually. When the recent ring is full, the oldest sample is
+ * folded into an hourly ring that keeps the last value seen in each hour, so memory stays
+ * bounded however long the goal is tracked.
+ */
+class ProgressHistory
+{
+    static final int RECENT_CAPACITY = 32;
+    static final int HOURLY_CAPACITY = 48;
+    static final long HOUR_MS = 60 * 60 * 1000L;
+
+    private final long[] recentTimes = new long[RECENT_CAPACITY];
+    private final int[] recentValues = new int[RECENT_CAPACITY];
+    private int recentStart;
+    private int recentSize;
+
+    private final long[] hourlyTimes = new long[HOURLY_CAPACITY];
+    private final int[] hourlyValues = new int[HOURLY_CAPACITY];
+    private int hourlyStart;
+    private int hourlySize;
+
+    ProgressHistory()
+    {
+    }
+
+    /**
+     * Copy of another history, for reading on another thread while the original keeps recording
+     */
+    ProgressHistory(ProgressHistory other)
+    {
+        System.arraycopy(other.recentTimes, 0, recentTimes, 0, RECENT_CAPACITY);
+        System.arraycopy(other.recentValues, 0, recentValues, 0, RECENT_CAPACITY);
+        recentStart = other.recentStart;
+        recentSize = other.recentSize;
+        System.arraycopy(other.hourlyTimes, 0, hourlyTimes, 0, HOURLY_CAPACITY);
+        System.arraycopy(other.hourlyValues, 0, hourlyValues, 0, HOURLY_CAPACITY);
+        hourlyStart = other.hourlyStart;
+        hourlySize = other.hourlySize;
+    }
+
+    /**
+     * Record the progress value at a point in time. Samples must be recorded in time order.
+     */
+    public void record(long time, int value)
+    {
+        if (recentSize > 0 && recentValues[index(recentStart, recentSize - 1, RECENT_CAPACITY)] == value)
+        {
+            return;
+        }
+
+        if (recentSize == RECENT_CAPACITY)
+        {
+            downsample(recentTimes[recentStart], recentValues[recentStart]);
+            recentStart = (recentStart + 1) % RECENT_CAPACITY;
+            recentSize--;
+        }
+
+        int slot = index(recentStart, recentSize, RECENT_CAPACITY);
+        recentTimes[slot] = time;
+        recentValues[slot] = value;
+        recentSize++;
+    }
+
+    /**
+     * Number of samples, hourly and recent combined
+     */
+    public int size()
+    {
+        return hourlySize + recentSize;
+    }
+
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * Time of the i-th sample, oldest first
+     */
+    public long getTime(int i)
+    {
+        return i < hourlySize
+                ? hourlyTimes[index(hourlyStart, i, HOURLY_CAPACITY)]
+                : recentTimes[index(recentStart, i - hourlySize, RECENT_CAPACITY)];
+    }
+
+    /**
+     * Value of the i-th sample, oldest first
+     */
+    public int getValue(int i)
+    {
+        return i < hourlySize
+                ? hourlyValues[index(hourlyStart, i, HOURLY_CAPACITY)]
+                : recentValues[index(recentStart, i - hourlySize, RECENT_CAPACITY)];
+    }
+
+    /**
+     * Progress made since the given time, measured from the last sample at or before it,
+     * or from the oldest sample if tracking started later
+     */
+    public int getChangeSince(long since)
+    {
+        int size = size();
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        int baseline = getValue(0);
+        for (int i = size - 1; i >= 0; i--)
+        {
+            if (getTime(i) <= since)
+            {
+                baseline = getValue(i);
+                break;
+            }
+        }
+
+        return getValue(size - 1) - baseline;
+    }
+
+    private void downsample(long time, int value)
+    {
+        long hour = time / HOUR_MS;
+        if (hourlySize > 0)
+        {
+            int last = index(hourlyStart, hourlySize - 1, HOURLY_CAPACITY);
+            if (hourlyTimes[last] / HOUR_MS == hour)
+            {
+                // Same hour, keep the latest value
+                hourlyTimes[last] = time;
+                hourlyValues[last] = value;
+                return;
+            }
+        }
+
+        if (hourlySize == HOURLY_CAPACITY)
+        {
+            hourlyStart = (hourlyStart + 1) % HOURLY_CAPACITY;
+            hourlySize--;
+        }
+
+        int slot = index(hourlyStart, hourlySize, HOURLY_CAPACITY);
+        hourlyTimes[slot] = time;
+        hourlyValues[slot] = value;
+        hourlySize++;
+    }
+
+    private static int index(int start, int offset, int capacity)
+    {
+        return (start + offset) % capacity;
+    }
+}
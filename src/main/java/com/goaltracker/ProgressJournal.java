@@ -0,0 +1,582 @@
+package com.goaltracker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of goal progress samples, so progress history survives restarts
+ * without rewriting the goals themselves.
+ * <p>
+ * {@link #append} only copies the sample into preallocated arrays. The executor drains them
+ * into a memory-mapped journal file once a second. The journal is compacted when it fills up,
+ * every few minutes and on close: the previous snapshot and the journal are replayed into
+ * per-goal {@link ProgressHistory}s, which bound the samples kept per goal, and written out as
+ * a new snapshot. Every record ends in a checksum, so a record only partly on disk after a
+ * crash, or the zero fill after the last record, is never replayed.
+ */
+@Slf4j
+class ProgressJournal
+{
+    private static final int JOURNAL_MAGIC = 0x4754504A; // "GTPJ"
+    private static final int SNAPSHOT_MAGIC = 0x47545053; // "GTPS"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int JOURNAL_VERSION = 2;
+    // Records without checksums, replayed once into the snapshot
+    private static final int LEGACY_JOURNAL_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int JOURNAL_SIZE = 2 * 1024 * 1024;
+    private static final long DRAIN_INTERVAL_MS = 1000;
+    private static final long COMPACT_INTERVAL_MS = 10 * 60 * 1000;
+
+    private static final byte RECORD_END = 0;
+    // handle, id length, id, checksum
+    private static final byte RECORD_DEFINE = 1;
+    // handle, time, value, checksum
+    private static final byte RECORD_SAMPLE = 2;
+    // id length, id, checksum
+    private static final byte RECORD_REMOVE = 3;
+    private static final int CHECKSUM_SIZE = 4;
+    private static final int SAMPLE_RECORD_SIZE = 1 + 4 + 8 + 4 + CHECKSUM_SIZE;
+    // Odd, so a record of zeros never carries a matching checksum
+    private static final int CHECKSUM_SEED = 0x5A17C3E5;
+
+    private static final int INITIAL_PENDING = 1024;
+
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final ScheduledExecutorService executor;
+
+    // Samples and removals appended since the last drain, guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private String[] pendingIds = new String[INITIAL_PENDING];
+    private long[] pendingTimes = new long[INITIAL_PENDING];
+    private int[] pendingValues = new int[INITIAL_PENDING];
+    private boolean[] pendingRemovals = new boolean[INITIAL_PENDING];
+    private int pendingSize;
+
+    // Spare arrays swapped in on drain, so appending does not allocate, used only by the draining thread
+    private String[] drainIds = new String[INITIAL_PENDING];
+    private long[] drainTimes = new long[INITIAL_PENDING];
+    private int[] drainValues = new int[INITIAL_PENDING];
+    private boolean[] drainRemovals = new boolean[INITIAL_PENDING];
+
+    // Whether the journal is open, samples appended otherwise are dropped rather than piling up
+    private volatile boolean accepting;
+
+    // Writer state, guarded by this
+    private FileChannel channel;
+    private MappedByteBuffer journal;
+    private final Map<String, Integer> handles = new HashMap<>();
+    // Handles are never reused within a journal, a removed goal's handle may still be defined in it
+    private int nextHandle;
+    private long lastCompaction;
+    private ScheduledFuture<?> drainFuture;
+
+    ProgressJournal(Path directory, ScheduledExecutorService executor)
+    {
+        this.journalFile = directory.resolve("progress.journal");
+        this.snapshotFile = directory.resolve("progress.snapshot");
+        this.executor = executor;
+    }
+
+    /**
+     * Record a progress sample. Cheap enough for the client thread. Dropped if the journal is not open.
+     */
+    public void append(String goalId, long time, int value)
+    {
+        synchronized (pendingLock)
+        {
+            if (!accepting)
+            {
+                return;
+            }
+
+            ensurePendingCapacity();
+            pendingIds[pendingSize] = goalId;
+            pendingTimes[pendingSize] = time;
+            pendingValues[pendingSize] = value;
+            pendingRemovals[pendingSize] = false;
+            pendingSize++;
+        }
+    }
+
+    /**
+     * Drop a removed goal's samples at the next compaction
+     */
+    public void remove(String goalId)
+    {
+        synchronized (pendingLock)
+        {
+            if (!accepting)
+            {
+                return;
+            }
+
+            ensurePendingCapacity();
+            pendingIds[pendingSize] = goalId;
+            pendingRemovals[pendingSize] = true;
+            pendingSize++;
+        }
+    }
+
+    /**
+     * Move the journal files kept in another directory to this journal's, if it has none yet.
+     * Used when goals move between directories, before the journal is opened.
+     */
+    public synchronized void adopt(Path directory) throws IOException
+    {
+        if (journal != null)
+        {
+            throw new IllegalStateException("Journal is already open");
+        }
+
+        Files.createDirectories(journalFile.getParent());
+        for (Path target : new Path[]{journalFile, snapshotFile})
+        {
+            Path source = directory.resolve(target.getFileName());
+            if (Files.exists(source) && !Files.exists(target))
+            {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+
+    /**
+     * Open the journal and start draining appended samples on the executor
+     *
+     * @return the progress history of every goal, read while opening so the journal is only replayed once
+     */
+    public synchronized Map<String, ProgressHistory> open() throws IOException
+    {
+        if (journal != null)
+        {
+            return replay();
+        }
+
+        Files.createDirectories(journalFile.getParent());
+        channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, JOURNAL_SIZE);
+
+        Map<String, ProgressHistory> histories = readSnapshot();
+        int version = journal.getInt(4);
+        if (journal.getInt(0) != JOURNAL_MAGIC || (version != JOURNAL_VERSION && version != LEGACY_JOURNAL_VERSION))
+        {
+            clearJournal();
+        }
+        else if (version == LEGACY_JOURNAL_VERSION)
+        {
+            // Folded into the snapshot, so the journal starts over with checksummed records
+            journal.position(HEADER_SIZE);
+            replayJournal(histories, false);
+            writeSnapshot(histories);
+            clearJournal();
+        }
+        else
+        {
+            // Continue after the last complete record
+            journal.position(HEADER_SIZE);
+            replayJournal(histories, true);
+        }
+
+        lastCompaction = System.currentTimeMillis();
+        drainFuture = executor.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MS, DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        accepting = true;
+        return histories;
+    }
+
+    /**
+     * Write out everything appended so far and stop draining
+     */
+    public synchronized void close()
+    {
+        accepting = false;
+        if (drainFuture != null)
+        {
+            drainFuture.cancel(false);
+            drainFuture = null;
+        }
+
+        if (journal == null)
+        {
+            return;
+        }
+
+        drain();
+        if (journal.position() > HEADER_SIZE)
+        {
+            // The next open then reads one snapshot instead of replaying the journal
+            try
+            {
+                compact();
+            }
+            catch (IOException e)
+            {
+                log.warn("Error compacting progress journal", e);
+            }
+        }
+        journal.force();
+        journal = null;
+
+        try
+        {
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            log.warn("Error closing progress journal", e);
+        }
+        channel = null;
+        handles.clear();
+        nextHandle = 0;
+    }
+
+    /**
+     * Read the progress history of every goal from the snapshot and the journal
+     */
+    public synchronized Map<String, ProgressHistory> replay()
+    {
+        Map<String, ProgressHistory> histories = readSnapshot();
+
+        if (journal != null)
+        {
+            int position = journal.position();
+            journal.position(HEADER_SIZE);
+            replayJournal(histories, true);
+            journal.position(position);
+        }
+
+        return histories;
+    }
+
+    synchronized void drain()
+    {
+        if (journal == null)
+        {
+            return;
+        }
+
+        try
+        {
+            drainPending();
+
+            // Compacted now and then, not only once full, so history is never left to a long journal alone
+            if (journal.position() > HEADER_SIZE && System.currentTimeMillis() - lastCompaction >= COMPACT_INTERVAL_MS)
+            {
+                compact();
+            }
+        }
+        catch (IOException e)
+        {
+            log.warn("Error writing progress journal", e);
+        }
+    }
+
+    private void drainPending() throws IOException
+    {
+        int count;
+        synchronized (pendingLock)
+        {
+            count = pendingSize;
+            if (count == 0)
+            {
+                return;
+            }
+
+            // Swap buffers so appending can continue while this drain writes
+            String[] ids = pendingIds;
+            long[] times = pendingTimes;
+            int[] values = pendingValues;
+            boolean[] removals = pendingRemovals;
+            pendingIds = drainIds;
+            pendingTimes = drainTimes;
+            pendingValues = drainValues;
+            pendingRemovals = drainRemovals;
+            pendingSize = 0;
+            drainIds = ids;
+            drainTimes = times;
+            drainValues = values;
+            drainRemovals = removals;
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            String id = drainIds[i];
+            drainIds[i] = null;
+
+            if (drainRemovals[i])
+            {
+                writeRemove(id);
+            }
+            else
+            {
+                writeSample(id, drainTimes[i], drainValues[i]);
+            }
+        }
+    }
+
+    private void writeSample(String id, long time, int value) throws IOException
+    {
+        Integer handle = handles.get(id);
+        byte[] idBytes = handle == null ? id.getBytes(StandardCharsets.UTF_8) : null;
+        int needed = SAMPLE_RECORD_SIZE + (idBytes == null ? 0 : 1 + 4 + 2 + idBytes.length + CHECKSUM_SIZE) + 1;
+
+        if (journal.remaining() < needed)
+        {
+            compact();
+            handle = null;
+            idBytes = id.getBytes(StandardCharsets.UTF_8);
+        }
+
+        if (handle == null)
+        {
+            handle = nextHandle++;
+            handles.put(id, handle);
+            journal.put(RECORD_DEFINE);
+            journal.putInt(handle);
+            journal.putShort((short) idBytes.length);
+            journal.put(idBytes);
+            journal.putInt(checksum(handle, idBytes.length, Arrays.hashCode(idBytes)));
+        }
+
+        journal.put(RECORD_SAMPLE);
+        journal.putInt(handle);
+        journal.putLong(time);
+        journal.putInt(value);
+        journal.putInt(checksum(handle, time, value));
+    }
+
+    private void writeRemove(String id) throws IOException
+    {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        if (journal.remaining() < 1 + 2 + idBytes.length + CHECKSUM_SIZE + 1)
+        {
+            compact();
+        }
+
+        journal.put(RECORD_REMOVE);
+        journal.putShort((short) idBytes.length);
+        journal.put(idBytes);
+        journal.putInt(checksum(-1, idBytes.length, Arrays.hashCode(idBytes)));
+        handles.remove(id);
+    }
+
+    private static int checksum(int handle, long time, int value)
+    {
+        int hash = CHECKSUM_SEED;
+        hash = 31 * hash + handle;
+        hash = 31 * hash + Long.hashCode(time);
+        hash = 31 * hash + value;
+        return hash;
+    }
+
+    /**
+     * Fold the journal into a new snapshot and start the journal over
+     */
+    private void compact() throws IOException
+    {
+        Map<String, ProgressHistory> histories = replay();
+        writeSnapshot(histories);
+        clearJournal();
+        lastCompaction = System.currentTimeMillis();
+        log.debug("Compacted progress journal, {} goals", histories.size());
+    }
+
+    private void writeSnapshot(Map<String, ProgressHistory> histories) throws IOException
+    {
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os)))
+        {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(histories.size());
+            for (Map.Entry<String, ProgressHistory> entry : histories.entrySet())
+            {
+                ProgressHistory history = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(history.size());
+                for (int i = 0; i < history.size(); i++)
+                {
+                    out.writeLong(history.getTime(i));
+                    out.writeInt(history.getValue(i));
+                }
+            }
+        }
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Map<String, ProgressHistory> readSnapshot()
+    {
+        Map<String, ProgressHistory> histories = new HashMap<>();
+        if (!Files.isRegularFile(snapshotFile))
+        {
+            return histories;
+        }
+
+        try (InputStream is = Files.newInputStream(snapshotFile);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is)))
+        {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION)
+            {
+                return histories;
+            }
+
+            int goals = in.readInt();
+            for (int g = 0; g < goals; g++)
+            {
+                String id = in.readUTF();
+                ProgressHistory history = new ProgressHistory();
+                int samples = in.readInt();
+                for (int i = 0; i < samples; i++)
+                {
+                    history.record(in.readLong(), in.readInt());
+                }
+                histories.put(id, history);
+            }
+        }
+        catch (IOException e)
+        {
+            log.warn("Error reading progress snapshot", e);
+        }
+
+        return histories;
+    }
+
+    /**
+     * Replay journal records from the current position, leaving the position after the last complete record
+     *
+     * @param checksummed whether the records end in checksums, which journals before version 2 lack
+     */
+    private void replayJournal(Map<String, ProgressHistory> histories, boolean checksummed)
+    {
+        int checksumSize = checksummed ? CHECKSUM_SIZE : 0;
+        // Goal ids by handle, handles are handed out in order from zero within a journal
+        String[] ids = new String[64];
+        int defined = 0;
+
+        while (journal.remaining() > 0)
+        {
+            int start = journal.position();
+            byte type = journal.get();
+
+            if (type == RECORD_DEFINE && journal.remaining() >= 4 + 2 + checksumSize)
+            {
+                int handle = journal.getInt();
+                int length = journal.getShort() & 0xFFFF;
+                if (handle < 0 || handle > defined || journal.remaining() < length + checksumSize)
+                {
+                    journal.position(start);
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                journal.get(bytes);
+                if (checksummed && journal.getInt() != checksum(handle, length, Arrays.hashCode(bytes)))
+                {
+                    journal.position(start);
+                    break;
+                }
+
+                String id = new String(bytes, StandardCharsets.UTF_8);
+                if (handle >= ids.length)
+                {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                ids[handle] = id;
+                defined = Math.max(defined, handle + 1);
+                handles.put(id, handle);
+                nextHandle = Math.max(nextHandle, handle + 1);
+            }
+            else if (type == RECORD_SAMPLE && journal.remaining() >= SAMPLE_RECORD_SIZE - CHECKSUM_SIZE + checksumSize - 1)
+            {
+                int handle = journal.getInt();
+                long time = journal.getLong();
+                int value = journal.getInt();
+                if (checksummed && journal.getInt() != checksum(handle, time, value))
+                {
+                    journal.position(start);
+                    break;
+                }
+
+                String id = handle >= 0 && handle < defined ? ids[handle] : null;
+                if (id != null)
+                {
+                    histories.computeIfAbsent(id, k -> new ProgressHistory()).record(time, value);
+                }
+            }
+            else if (type == RECORD_REMOVE && journal.remaining() >= 2 + checksumSize)
+            {
+                int length = journal.getShort() & 0xFFFF;
+                if (journal.remaining() < length + checksumSize)
+                {
+                    journal.position(start);
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                journal.get(bytes);
+                if (checksummed && journal.getInt() != checksum(-1, length, Arrays.hashCode(bytes)))
+                {
+                    journal.position(start);
+                    break;
+                }
+
+                String id = new String(bytes, StandardCharsets.UTF_8);
+                histories.remove(id);
+                handles.remove(id);
+            }
+            else
+            {
+                // End of the written records, or a record cut short
+                journal.position(start);
+                break;
+            }
+        }
+    }
+
+    private void clearJournal()
+    {
+        journal.clear();
+        byte[] zeros = new byte[64 * 1024];
+        while (journal.hasRemaining())
+        {
+            journal.put(zeros, 0, Math.min(zeros.length, journal.remaining()));
+        }
+
+        journal.putInt(0, JOURNAL_MAGIC);
+        journal.putInt(4, JOURNAL_VERSION);
+        journal.position(HEADER_SIZE);
+        handles.clear();
+        nextHandle = 0;
+    }
+
+    private void ensurePendingCapacity()
+    {
+        if (pendingSize == pendingIds.length)
+        {
+            // Rare, only when the executor falls far behind
+            int capacity = pendingIds.length * 2;
+            pendingIds = Arrays.copyOf(pendingIds, capacity);
+            pendingTimes = Arrays.copyOf(pendingTimes, capacity);
+            pendingValues = Arrays.copyOf(pendingValues, capacity);
+            pendingRemovals = Arrays.copyOf(pendingRemovals, capacity);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.goaltracker;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import net.runelite.api.Client;
+import net.runelite.api.Quest;
+import net.runelite.api.QuestState;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class QuestGoal extends Goal
+{
+    // Progress steps: not started, in progress, finished
+    private static final int FINISHED = 2;
+
+    private Quest quest;
+
+    public QuestGoal()
+    {
+        super();
+    }
+
+    public QuestGoal(String name, String description, Quest quest, String category)
+    {
+        super(name, description, GoalType.QUEST, FINISHED, category);
+        this.quest = quest;
+    }
+
+    @Override
+    public void updateProgress(Client client)
+    {
+        if (client == null || quest == null)
+        {
+            return;
+        }
+
+        QuestState state = quest.getState(client);
+        switch (state)
+        {
+            case FINISHED:
+                setCurrentProgress(FINISHED);
+                break;
+            case IN_PROGRESS:
+                setCurrentProgress(1);
+                break;
+            default:
+                setCurrentProgress(0);
+                break;
+        }
+
+        checkCompletion();
+    }
+
+    public String getFormattedProgress()
+    {
+        switch (getCurrentProgress())
+        {
+            case FINISHED:
+                return "Finished";
+            case 1:
+                return "In progress";
+            default:
+                return "Not started";
+        }
+    }
+}
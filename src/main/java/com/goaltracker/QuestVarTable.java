@@ -0,0 +1,90 @@
+package com.goaltracker;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Quest;
+
+/**
+ * Which varp or varbit holds each quest's progress, read once from quest_vars.json.
+ * Quests missing from the table, such as miniquests, are re-evaluated every few ticks after a var changes.
+ */
+@Slf4j
+class QuestVarTable
+{
+    private static final String RESOURCE = "/quest_vars.json";
+
+    private final Map<Quest, QuestVar> vars;
+
+    private QuestVarTable(Map<Quest, QuestVar> vars)
+    {
+        this.vars = vars;
+    }
+
+    static QuestVarTable load()
+    {
+        Map<Quest, QuestVar> vars = new EnumMap<>(Quest.class);
+
+        try (InputStream in = QuestVarTable.class.getResourceAsStream(RESOURCE))
+        {
+            if (in == null)
+            {
+                log.warn("Missing quest var table {}", RESOURCE);
+                return new QuestVarTable(vars);
+            }
+
+            Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+            Map<String, QuestVar> entries = new Gson().fromJson(reader, new TypeToken<Map<String, QuestVar>>(){}.getType());
+            for (Map.Entry<String, QuestVar> entry : entries.entrySet())
+            {
+                try
+                {
+                    vars.put(Quest.valueOf(entry.getKey()), entry.getValue());
+                }
+                catch (IllegalArgumentException e)
+                {
+                    // The quest was renamed or removed in this client version
+                    log.debug("Unknown quest in var table: {}", entry.getKey());
+                }
+            }
+        }
+        catch (IOException | JsonParseException e)
+        {
+            log.warn("Error reading quest var table", e);
+        }
+
+        return new QuestVarTable(vars);
+    }
+
+    /**
+     * The varp holding the quest's progress, or -1
+     */
+    public int getVarp(Quest quest)
+    {
+        QuestVar var = vars.get(quest);
+        return var == null ? -1 : var.varp;
+    }
+
+    /**
+     * The varbit holding the quest's progress, or -1
+     */
+    public int getVarbit(Quest quest)
+    {
+        QuestVar var = vars.get(quest);
+        return var == null ? -1 : var.varbit;
+    }
+
+    static class QuestVar
+    {
+        int varp = -1;
+        int varbit = -1;
+    }
+}
@@ -0,0 +1,126 @@
+package com.goaltracker;
+
+/**
+ * Rolling rate of change of a value, such as experience or an item count, as a time-weighted
+ * exponential moving average. Each sample is O(1) and allocation free.
+ */
+class RateEstimator
+{
+    // Samples older than this carry about a third of their original weight
+    static final double TIME_CONSTANT_MS = 10 * 60 * 1000d;
+    private static final double HOUR_MS = 60 * 60 * 1000d;
+
+    private boolean initialized;
+    private long lastTime;
+    private long lastValue;
+    // Units per millisecond
+    private double rate;
+
+    RateEstimator()
+    {
+    }
+
+    /**
+     * Copy of another estimator, for reading on another thread while the original keeps recording
+     */
+    RateEstimator(RateEstimator other)
+    {
+        initialized = other.initialized;
+        lastTime = other.lastTime;
+        lastValue = other.lastValue;
+        rate = other.rate;
+    }
+
+    /**
+     * Record the value at a point in time
+     */
+    public void record(long time, long value)
+    {
+        if (!initialized)
+        {
+            initialized = true;
+            lastTime = time;
+            lastValue = value;
+            return;
+        }
+
+        long dt = time - lastTime;
+        if (dt <= 0)
+        {
+            // Several changes in the same instant, fold them into the next sample
+            return;
+        }
+
+        double instantRate = (double) (value - lastValue) / dt;
+        // Weight the new sample by how much time it covers
+        double alpha = 1 - Math.exp(-dt / TIME_CONSTANT_MS);
+        rate += alpha * (instantRate - rate);
+
+        lastTime = time;
+        lastValue = value;
+    }
+
+    /**
+     * Move the baseline to the value at a point in time without counting the change as progress,
+     * for jumps that were not gained, such as a container's contents first becoming known
+     */
+    public void reset(long time, long value)
+    {
+        initialized = true;
+        lastTime = time;
+        lastValue = value;
+    }
+
+    public boolean hasSamples()
+    {
+        return initialized;
+    }
+
+    /**
+     * The most recently recorded value
+     */
+    public long getLastValue()
+    {
+        return lastValue;
+    }
+
+    /**
+     * Rate in units per hour, decayed towards zero for the time since the last sample
+     */
+    public double getRatePerHour(long now)
+    {
+        return currentRate(now) * HOUR_MS;
+    }
+
+    /**
+     * Estimate the time needed to gain the given amount at the current rate
+     *
+     * @return milliseconds, or -1 if the rate is not positive
+     */
+    public long estimateTime(long remaining, long now)
+    {
+        if (remaining <= 0)
+        {
+            return 0;
+        }
+
+        double current = currentRate(now);
+        if (current <= 0)
+        {
+            return -1;
+        }
+
+        return (long) Math.min(remaining / current, Long.MAX_VALUE);
+    }
+
+    private double currentRate(long now)
+    {
+        if (!initialized)
+        {
+            return 0;
+        }
+
+        long idle = Math.max(0, now - lastTime);
+        return rate * Math.exp(-idle / TIME_CONSTANT_MS);
+    }
+}
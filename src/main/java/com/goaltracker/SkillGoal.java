@@ -33,6 +33,12 @@ public class SkillGoal extends Goal
             return;
         }
 
+        if (skill == Skill.OVERALL)
+        {
+            updateOverallProgress(client);
+            return;
+        }
+
         switch (goalType)
         {
             case LEVEL:
@@ -51,6 +57,65 @@ public class SkillGoal extends Goal
         checkCompletion();
     }
 
+    /**
+     * Total level and total experience goals are composed from every skill
+     */
+    private void updateOverallProgress(Client client)
+    {
+        switch (goalType)
+        {
+            case LEVEL:
+                setCurrentProgress(client.getTotalLevel());
+                break;
+            case EXPERIENCE:
+                setCurrentProgress((int) Math.min(client.getOverallExperience(), Integer.MAX_VALUE));
+                break;
+            case VIRTUAL_LEVEL:
+                int virtualTotal = 0;
+                for (Skill s : Skill.values())
+                {
+                    if (s != Skill.OVERALL)
+                    {
+                        virtualTotal += Experience.getLevelForXp(client.getSkillExperience(s));
+                    }
+                }
+                setCurrentProgress(virtualTotal);
+                break;
+        }
+
+        checkCompletion();
+    }
+
+    /**
+     * Skill goal rates are measured in experience, so the remaining amount is experience too
+     */
+    @Override
+    protected long getRemainingAmount()
+    {
+        if (getRate() == null)
+        {
+            return -1;
+        }
+
+        long xp = getRate().getLastValue();
+        switch (goalType)
+        {
+            case EXPERIENCE:
+                return Math.max(0, getTargetValue() - xp);
+            case LEVEL:
+            case VIRTUAL_LEVEL:
+                if (skill == Skill.OVERALL)
+                {
+                    // Total level has no single experience target
+                    return -1;
+                }
+                int level = Math.max(1, Math.min(getTargetValue(), Experience.MAX_VIRT_LEVEL));
+                return Math.max(0, Experience.getXpForLevel(level) - xp);
+            default:
+                return -1;
+        }
+    }
+
     public String getFormattedProgress()
     {
         switch (goalType)
@@ -0,0 +1,64 @@
+package com.goaltracker;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import javax.swing.JComponent;
+import net.runelite.client.ui.ColorScheme;
+
+/**
+ * Draws a goal's progress history as a line, from the copy in the panel's goal list snapshot
+ */
+class Sparkline extends JComponent {
+    private ProgressHistory history;
+
+    Sparkline() {
+        setPreferredSize(new Dimension(0, 16));
+        setForeground(ColorScheme.PROGRESS_INPROGRESS_COLOR);
+    }
+
+    void setHistory(ProgressHistory history) {
+        this.history = history;
+        setVisible(history != null && history.size() > 1);
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (history == null || history.size() < 2) {
+            return;
+        }
+
+        int size = history.size();
+        long firstTime = history.getTime(0);
+        long timeSpan = Math.max(1, history.getTime(size - 1) - firstTime);
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, history.getValue(i));
+            max = Math.max(max, history.getValue(i));
+        }
+        long valueSpan = Math.max(1, (long) max - min);
+
+        int width = getWidth() - 1;
+        int height = getHeight() - 1;
+
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(getForeground());
+
+        int prevX = 0;
+        int prevY = 0;
+        for (int i = 0; i < size; i++) {
+            int x = (int) ((history.getTime(i) - firstTime) * width / timeSpan);
+            int y = height - (int) (((long) history.getValue(i) - min) * height / valueSpan);
+            if (i > 0) {
+                g2.drawLine(prevX, prevY, x, y);
+            }
+            prevX = x;
+            prevY = y;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.goaltracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatch table from varp and varbit ids to the goals that depend on them, so a var change
+ * only marks the goals subscribed to that var instead of sweeping every goal.
+ */
+class VarGoalIndex
+{
+    private final Map<Integer, List<Goal>> varpGoals = new HashMap<>();
+    private final Map<Integer, List<Goal>> varbitGoals = new HashMap<>();
+
+    public void subscribeVarp(int varpId, Goal goal)
+    {
+        subscribe(varpGoals, varpId, goal);
+    }
+
+    public void subscribeVarbit(int varbitId, Goal goal)
+    {
+        subscribe(varbitGoals, varbitId, goal);
+    }
+
+    /**
+     * Drop every subscription of a goal
+     */
+    public void unsubscribe(Goal goal)
+    {
+        unsubscribe(varpGoals, goal);
+        unsubscribe(varbitGoals, goal);
+    }
+
+    public List<Goal> getVarpGoals(int varpId)
+    {
+        return varpGoals.getOrDefault(varpId, Collections.emptyList());
+    }
+
+    public List<Goal> getVarbitGoals(int varbitId)
+    {
+        return varbitGoals.getOrDefault(varbitId, Collections.emptyList());
+    }
+
+    public void clear()
+    {
+        varpGoals.clear();
+        varbitGoals.clear();
+    }
+
+    private static void subscribe(Map<Integer, List<Goal>> index, int varId, Goal goal)
+    {
+        List<Goal> subscribers = index.computeIfAbsent(varId, k -> new ArrayList<>());
+        for (Goal subscriber : subscribers)
+        {
+            if (subscriber.getId().equals(goal.getId()))
+            {
+                return;
+            }
+        }
+        subscribers.add(goal);
+    }
+
+    private static void unsubscribe(Map<Integer, List<Goal>> index, Goal goal)
+    {
+        Iterator<List<Goal>> lists = index.values().iterator();
+        while (lists.hasNext())
+        {
+            List<Goal> subscribers = lists.next();
+            subscribers.removeIf(subscriber -> subscriber.getId().equals(goal.getId()));
+            if (subscribers.isEmpty())
+            {
+                lists.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.goaltracker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import net.runelite.api.Client;
+import net.runelite.client.util.QuantityFormatter;
+
+/**
+ * A goal on the value of everything in a container, or of a set of items in it, such as
+ * 100M in the bank. Values are tracked in gp as longs; the int progress and target inherited
+ * from {@link Goal} hold the same values in thousands of gp.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class WealthGoal extends Goal
+{
+    private static final int PROGRESS_UNIT = 1000;
+
+    private ItemGoalType itemGoalType;
+    // Items counted towards the goal, or empty to count everything
+    private List<Integer> itemIds;
+    private long targetWealth;
+    private long currentWealth;
+
+    public WealthGoal()
+    {
+        super();
+    }
+
+    public WealthGoal(String name, String description, ItemGoalType itemGoalType, List<Integer> itemIds,
+                      long targetWealth, String category)
+    {
+        super(name, description, GoalType.WEALTH, toProgress(targetWealth), category);
+        this.itemGoalType = itemGoalType;
+        this.itemIds = new ArrayList<>(itemIds);
+        this.targetWealth = targetWealth;
+    }
+
+    @Override
+    public void updateProgress(Client client)
+    {
+        // Wealth is only known from the counted containers
+    }
+
+    /**
+     * Update the goal's value from pre-counted container contents
+     */
+    public void updateProgress(ItemCountIndex itemCounts, ItemPriceCache prices)
+    {
+        long wealth;
+        if (itemIds == null || itemIds.isEmpty())
+        {
+            wealth = itemCounts.getValue(itemGoalType);
+        }
+        else
+        {
+            wealth = 0;
+            for (int itemId : itemIds)
+            {
+                wealth += (long) itemCounts.getCount(itemGoalType, itemId) * prices.get(itemId);
+            }
+        }
+
+        setCurrentWealth(wealth);
+        setCurrentProgress(toProgress(wealth));
+        checkCompletion();
+    }
+
+    public void setCurrentWealth(long currentWealth)
+    {
+        if (this.currentWealth != currentWealth)
+        {
+            this.currentWealth = currentWealth;
+            setDirty(true);
+        }
+    }
+
+    @Override
+    protected void checkCompletion()
+    {
+        if (currentWealth >= targetWealth && !isCompleted())
+        {
+            setStatus(GoalStatus.COMPLETED);
+            setCompletionDate(Instant.now());
+        }
+    }
+
+    @Override
+    public int getProgressPercentage()
+    {
+        if (targetWealth <= 0)
+        {
+            return 0;
+        }
+
+        return (int) Math.min(100, currentWealth * 100 / targetWealth);
+    }
+
+    @Override
+    protected long getRemainingAmount()
+    {
+        return Math.max(0, targetWealth - currentWealth);
+    }
+
+    public String getFormattedProgress()
+    {
+        return QuantityFormatter.quantityToStackSize(currentWealth) + "/"
+            + QuantityFormatter.quantityToStackSize(targetWealth) + " gp";
+    }
+
+    private static int toProgress(long wealth)
+    {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, wealth / PROGRESS_UNIT));
+    }
+}
@@ -0,0 +1,89 @@
+package com.goaltracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import net.runelite.api.Client;
+import org.junit.Test;
+
+public class CombatGoalTest
+{
+    private final Client client = mock(Client.class);
+
+    @Test
+    public void doesNotCountCancelledTasks()
+    {
+        CombatGoal goal = new CombatGoal("Tasks", "", null, 0, CombatGoalType.SLAYER_TASKS, 5, "");
+        goal.slayerTaskChanged(-1, 10);
+        // Cancelling sets the remaining amount to zero without a completion message
+        goal.slayerTaskChanged(10, 0);
+        goal.updateProgress(client);
+        assertEquals(0, goal.getCurrentProgress());
+
+        goal.slayerTaskChanged(0, 15);
+        goal.slayerTaskChanged(15, 1);
+        goal.slayerTaskChanged(1, 0);
+        goal.slayerTaskCompleted();
+        goal.updateProgress(client);
+        assertEquals(1, goal.getCurrentProgress());
+
+        // The message can also come before the remaining amount reaches zero
+        goal.slayerTaskChanged(0, 20);
+        goal.slayerTaskCompleted();
+        goal.slayerTaskChanged(20, 0);
+        goal.updateProgress(client);
+        assertEquals(2, goal.getCurrentProgress());
+    }
+
+    @Test
+    public void restartsOnSmallerTaskAfterCancelling()
+    {
+        CombatGoal goal = new CombatGoal("Task", "", null, 0, CombatGoalType.SLAYER_TASK, 200, "");
+        goal.slayerTaskChanged(-1, 100);
+        goal.updateProgress(client);
+        goal.slayerTaskChanged(100, 60);
+        goal.updateProgress(client);
+        assertEquals(40, goal.getCurrentProgress());
+
+        goal.slayerTaskChanged(60, 0);
+        goal.slayerTaskChanged(0, 20);
+        goal.updateProgress(client);
+        assertEquals(0, goal.getCurrentProgress());
+        assertEquals(20, goal.getInitialKillCount());
+    }
+
+    @Test
+    public void restartsWhenCreatureChanges()
+    {
+        CombatGoal goal = new CombatGoal("Task", "", null, 0, CombatGoalType.SLAYER_TASK, 200, "");
+        goal.slayerTaskChanged(-1, 100);
+        goal.updateProgress(client);
+        goal.slayerTaskChanged(100, 60);
+        goal.updateProgress(client);
+
+        // Reassigned without the amount going through zero
+        goal.slayerTaskAssigned();
+        goal.slayerTaskChanged(60, 30);
+        goal.updateProgress(client);
+        assertEquals(0, goal.getCurrentProgress());
+    }
+
+    @Test
+    public void staysCompleteAfterNextTask()
+    {
+        CombatGoal goal = new CombatGoal("Task", "", null, 0, CombatGoalType.SLAYER_TASK, 10, "");
+        goal.slayerTaskChanged(-1, 10);
+        goal.updateProgress(client);
+        goal.slayerTaskChanged(10, 0);
+        goal.slayerTaskCompleted();
+        goal.updateProgress(client);
+        assertEquals(10, goal.getCurrentProgress());
+        assertTrue(goal.isCompleted());
+
+        goal.slayerTaskChanged(0, 50);
+        goal.updateProgress(client);
+        assertEquals(10, goal.getCurrentProgress());
+        assertTrue(goal.isCompleted());
+    }
+}
@@ -0,0 +1,81 @@
+package com.goaltracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.runelite.api.Skill;
+import org.junit.Test;
+
+public class CompositeGoalTest
+{
+    @Test
+    public void staysIncompleteOnceLastChildIsRemoved()
+    {
+        SkillGoal child = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "");
+        CompositeGoal composite = new CompositeGoal("All", "", Collections.singletonList(child.getId()),
+            CompositeMode.ALL, 0, "");
+        List<Goal> goals = new ArrayList<>(Arrays.asList(child, composite));
+        CompositeGoalIndex index = new CompositeGoalIndex();
+        index.rebuild(goals);
+
+        // As GoalTrackerPlugin.removeGoal does
+        goals.remove(child);
+        composite.setChildIds(new ArrayList<>());
+        index.rebuild(goals);
+
+        assertFalse(composite.isCompleted());
+        assertEquals(1, composite.getTargetValue());
+    }
+
+    @Test
+    public void unCompletesWhenBelowRequiredCount()
+    {
+        SkillGoal first = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "");
+        SkillGoal second = new SkillGoal("Max defence", "", Skill.DEFENCE, SkillGoalType.LEVEL, 99, "");
+        first.setStatus(GoalStatus.COMPLETED);
+        CompositeGoal composite = new CompositeGoal("Any", "", Arrays.asList(first.getId(), second.getId()),
+            CompositeMode.ANY, 0, "");
+        List<Goal> goals = new ArrayList<>(Arrays.asList(first, second, composite));
+        CompositeGoalIndex index = new CompositeGoalIndex();
+        index.rebuild(goals);
+        assertTrue(composite.isCompleted());
+
+        // A completed child that is removed no longer counts
+        goals.remove(first);
+        composite.setChildIds(new ArrayList<>(Collections.singletonList(second.getId())));
+        index.rebuild(goals);
+
+        assertFalse(composite.isCompleted());
+        assertEquals(0, composite.getCurrentProgress());
+        assertNull(composite.getCompletionDate());
+
+        // Nor does one that drops back to in progress
+        second.setStatus(GoalStatus.COMPLETED);
+        assertEquals(Collections.singletonList(composite), index.goalChanged(second));
+        assertTrue(composite.isCompleted());
+
+        second.setStatus(GoalStatus.IN_PROGRESS);
+        assertEquals(Collections.singletonList(composite), index.goalChanged(second));
+        assertFalse(composite.isCompleted());
+    }
+
+    @Test
+    public void requiresAtLeastOneChild()
+    {
+        SkillGoal child = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "");
+        CompositeGoal composite = new CompositeGoal("None of one", "", Collections.singletonList(child.getId()),
+            CompositeMode.N_OF_M, 0, "");
+        new CompositeGoalIndex().rebuild(Arrays.asList(child, composite));
+        assertFalse(composite.isCompleted());
+
+        child.setStatus(GoalStatus.COMPLETED);
+        composite.childChanged(child);
+        assertTrue(composite.isCompleted());
+    }
+}
@@ -0,0 +1,224 @@
+package com.goaltracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.api.Quest;
+import net.runelite.api.Skill;
+import net.runelite.client.config.ConfigManager;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GoalSnapshotCodecTest
+{
+    private static final String CONFIG_GROUP = "goaltracker";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripsEveryGoalType() throws IOException
+    {
+        SkillGoal skill = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "Skills");
+        skill.setCurrentProgress(75);
+        skill.setPrerequisiteIds(new ArrayList<>(Collections.singletonList("quest")));
+
+        CombatGoal combat = new CombatGoal("Zulrah", "Snakeskins", "Zulrah", 2042, CombatGoalType.BOSS_KILLS, 500, "Bosses");
+        combat.setStatus(GoalStatus.COMPLETED);
+        combat.setCompletionDate(Instant.ofEpochSecond(1_700_000_000L, 123));
+        combat.setAcknowledged(true);
+
+        QuestGoal quest = new QuestGoal("Dragon Slayer", null, Quest.DRAGON_SLAYER_I, "Quests");
+        quest.setId("quest");
+
+        List<Goal> goals = Arrays.asList(
+            skill,
+            new ItemGoal("Coins", "", 995, ItemGoalType.ALL, 1_000_000, "Items"),
+            combat,
+            quest,
+            new AchievementGoal("Varrock easy", "", AchievementDiary.VARROCK_EASY, "Diaries"),
+            new AchievementGoal("Combat task", "", AchievementVarType.VARP, 3116, 5, "Combat achievements"),
+            new CompositeGoal("Both", "", Arrays.asList(skill.getId(), quest.getId()), CompositeMode.N_OF_M, 1, "Composite"),
+            new WealthGoal("Bank value", "", ItemGoalType.BANK, Arrays.asList(995, 13204), 10_000_000_000L, "Wealth"));
+
+        assertEquals(goals, roundTrip(goals));
+    }
+
+    @Test
+    public void distinguishesNullEnumsFromFirstConstants() throws IOException
+    {
+        // Ordinals are stored off by one, so the first constant must not read back as null
+        SkillGoal first = new SkillGoal("First", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "");
+        SkillGoal unset = new SkillGoal("Unset", "", Skill.ATTACK, null, 99, "");
+        unset.setStatus(null);
+        CombatGoal slayer = new CombatGoal("Task", "", null, 0, CombatGoalType.SLAYER_TASK, 100, null);
+
+        List<Goal> read = roundTrip(Arrays.asList(first, unset, slayer));
+
+        assertEquals(SkillGoalType.LEVEL, ((SkillGoal) read.get(0)).getGoalType());
+        assertEquals(GoalStatus.IN_PROGRESS, read.get(0).getStatus());
+        assertNull(((SkillGoal) read.get(1)).getGoalType());
+        assertNull(read.get(1).getStatus());
+        assertEquals(CombatGoalType.SLAYER_TASK, ((CombatGoal) read.get(2)).getCombatGoalType());
+        assertNull(((CombatGoal) read.get(2)).getNpcName());
+        assertNull(read.get(2).getCategory());
+        assertNull(read.get(2).getPrerequisiteIds());
+    }
+
+    @Test
+    public void ignoresSnapshotsOfAnotherFormat() throws IOException
+    {
+        Path file = folder.getRoot().toPath().resolve("goals.bin");
+        Files.write(file, new byte[]{0x47, 0x54, 0x52, 0x4B, (byte) ((GoalSnapshotCodec.VERSION + 1) * 2)});
+
+        assertNull(GoalSnapshotCodec.read(file));
+        assertNull(GoalSnapshotCodec.read(folder.getRoot().toPath().resolve("missing.bin")));
+    }
+
+    @Test
+    public void rejectsTruncatedSnapshots() throws IOException
+    {
+        Path file = folder.getRoot().toPath().resolve("goals.bin");
+        GoalSnapshotCodec.write(file, 1, Collections.singletonList(
+            new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "Skills")));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        try
+        {
+            GoalSnapshotCodec.read(file);
+            fail("Expected a truncated snapshot to be rejected");
+        }
+        catch (IOException expected)
+        {
+            // Callers fall back to the config
+        }
+    }
+
+    @Test
+    public void leavesOutUnsupportedGoals() throws IOException
+    {
+        SkillGoal skill = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "Skills");
+        SkillGoal other = new SkillGoal("Other", "", Skill.DEFENCE, SkillGoalType.LEVEL, 99, "Skills");
+        other.setType(GoalType.OTHER);
+
+        assertEquals(Collections.singletonList(skill), roundTrip(Arrays.asList(other, skill)));
+    }
+
+    @Test
+    public void skipsGoalsOfUnknownType() throws IOException
+    {
+        Path file = folder.getRoot().toPath().resolve("goals.bin");
+        SkillGoal skill = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "Skills");
+        QuestGoal quest = new QuestGoal("Dragon Slayer", null, Quest.DRAGON_SLAYER_I, "Quests");
+        GoalSnapshotCodec.write(file, 1, Arrays.asList(quest, skill));
+
+        // Rename the quest type in the string table, as if written by a newer version
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] name = "QUEST".getBytes(StandardCharsets.UTF_8);
+        int at = indexOf(bytes, name);
+        assertTrue(at > 0);
+        bytes[at + name.length - 1] = 'X';
+        Files.write(file, bytes);
+
+        assertEquals(Collections.singletonList(skill), GoalSnapshotCodec.read(file).goals);
+    }
+
+    @Test
+    public void loadsFromConfigWhenSnapshotIsCorrupt() throws IOException
+    {
+        Map<String, String> stored = new HashMap<>();
+        ConfigManager configManager = configManager(stored);
+        Path file = folder.getRoot().toPath().resolve("goals.bin");
+        List<Goal> goals = Collections.singletonList(
+            new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "Skills"));
+
+        GoalManager saving = new GoalManager(null, null);
+        saving.setSnapshotFile(file);
+        saving.saveGoals(goals, configManager, CONFIG_GROUP);
+
+        // Same generation as stamped in the config, but the goals cannot be read
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        GoalManager loading = new GoalManager(null, null);
+        loading.setSnapshotFile(file);
+        assertEquals(goals, loading.loadGoals(configManager, CONFIG_GROUP));
+    }
+
+    @Test
+    public void skipsAndKeepsUnreadableGoals()
+    {
+        Map<String, String> stored = new HashMap<>();
+        ConfigManager configManager = configManager(stored);
+        SkillGoal goal = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "Skills");
+        new GoalManager(null, null).saveGoals(Collections.singletonList(goal), configManager, CONFIG_GROUP);
+
+        // A goal of a type added by a newer version
+        stored.put(CONFIG_GROUP + ".goal.future", "{\"type\":\"FUTURE\",\"goal\":{\"id\":\"future\"}}");
+        stored.put(CONFIG_GROUP + ".goalIndex", "[\"" + goal.getId() + "\",\"future\"]");
+
+        GoalManager loading = new GoalManager(null, null);
+        List<Goal> loaded = new ArrayList<>(loading.loadGoals(configManager, CONFIG_GROUP));
+        assertEquals(Collections.singletonList(goal), loaded);
+
+        // Saving a change keeps the goal that could not be read
+        loaded.add(new SkillGoal("Max defence", "", Skill.DEFENCE, SkillGoalType.LEVEL, 99, "Skills"));
+        loading.saveGoals(loaded, configManager, CONFIG_GROUP);
+        assertNotNull(stored.get(CONFIG_GROUP + ".goal.future"));
+        assertTrue(stored.get(CONFIG_GROUP + ".goalIndex").contains("\"future\""));
+    }
+
+    private List<Goal> roundTrip(List<Goal> goals) throws IOException
+    {
+        Path file = folder.getRoot().toPath().resolve("goals.bin");
+        GoalSnapshotCodec.write(file, 42, goals);
+
+        GoalSnapshotCodec.Snapshot snapshot = GoalSnapshotCodec.read(file);
+        assertEquals(42, snapshot.generation);
+        return snapshot.goals;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern)
+    {
+        for (int i = 0; i + pattern.length <= bytes.length; i++)
+        {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + pattern.length), pattern))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static ConfigManager configManager(Map<String, String> stored)
+    {
+        ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.getConfiguration(anyString(), anyString()))
+            .thenAnswer(i -> stored.get(i.getArgument(0) + "." + i.getArgument(1)));
+        doAnswer(i -> stored.put(i.getArgument(0) + "." + i.getArgument(1), i.getArgument(2)))
+            .when(configManager).setConfiguration(anyString(), anyString(), anyString());
+        doAnswer(i -> stored.remove(i.getArgument(0) + "." + i.getArgument(1)))
+            .when(configManager).unsetConfiguration(anyString(), anyString());
+        return configManager;
+    }
+}
@@ -0,0 +1,92 @@
+package com.goaltracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import java.time.Instant;
+import java.util.Arrays;
+import net.runelite.api.Skill;
+import org.junit.Test;
+
+public class GoalTypeAdapterFactoryTest
+{
+    private final Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(new GoalTypeAdapterFactory())
+        .registerTypeAdapter(Instant.class, new InstantTypeAdapter().nullSafe())
+        .create();
+
+    @Test
+    public void writesTypeBeforeGoal()
+    {
+        SkillGoal goal = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "Skills");
+
+        String json = gson.toJson(goal, Goal.class);
+
+        assertTrue(json, json.startsWith("{\"type\":\"SKILL\",\"goal\":{"));
+        assertEquals(goal, gson.fromJson(json, Goal.class));
+    }
+
+    @Test
+    public void readsLegacyFlatGoals()
+    {
+        // As stored by versions before the type was written ahead of the goal, with the type in the middle
+        String json = "{\"skill\":\"ATTACK\",\"goalType\":\"LEVEL\",\"id\":\"a1\",\"name\":\"Max attack\","
+            + "\"description\":\"\",\"type\":\"SKILL\",\"status\":\"COMPLETED\","
+            + "\"creationDate\":{\"seconds\":1700000000,\"nanos\":5},"
+            + "\"category\":\"Skills\",\"currentProgress\":99,\"targetValue\":99,\"acknowledged\":true}";
+
+        Goal goal = gson.fromJson(json, Goal.class);
+
+        SkillGoal expected = new SkillGoal("Max attack", "", Skill.ATTACK, SkillGoalType.LEVEL, 99, "Skills");
+        expected.setId("a1");
+        expected.setStatus(GoalStatus.COMPLETED);
+        expected.setCreationDate(Instant.ofEpochSecond(1_700_000_000L, 5));
+        expected.setCurrentProgress(99);
+        expected.setAcknowledged(true);
+        assertEquals(expected, goal);
+    }
+
+    @Test
+    public void readsLegacyFlatGoalsStartingWithType()
+    {
+        String json = "{\"type\":\"ITEM\",\"itemId\":995,\"itemGoalType\":\"BANK\",\"id\":\"b2\","
+            + "\"name\":\"Coins\",\"status\":\"IN_PROGRESS\",\"targetValue\":1000,\"prerequisiteIds\":[\"a1\"]}";
+
+        ItemGoal goal = (ItemGoal) gson.fromJson(json, Goal.class);
+
+        assertEquals("b2", goal.getId());
+        assertEquals(995, goal.getItemId());
+        assertEquals(ItemGoalType.BANK, goal.getItemGoalType());
+        assertEquals(GoalType.ITEM, goal.getType());
+        assertEquals(Arrays.asList("a1"), goal.getPrerequisiteIds());
+    }
+
+    @Test
+    public void readsLegacyGoalArray()
+    {
+        String json = "[{\"name\":\"Zulrah\",\"type\":\"COMBAT\",\"npcName\":\"Zulrah\",\"combatGoalType\":\"BOSS_KILLS\"},"
+            + "{\"type\":\"QUEST\",\"goal\":{\"type\":\"QUEST\",\"name\":\"Dragon Slayer\",\"quest\":\"DRAGON_SLAYER_I\"}}]";
+
+        Goal[] goals = gson.fromJson(json, Goal[].class);
+
+        assertEquals(CombatGoalType.BOSS_KILLS, ((CombatGoal) goals[0]).getCombatGoalType());
+        assertEquals("Dragon Slayer", goals[1].getName());
+        assertTrue(goals[1] instanceof QuestGoal);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsGoalsWithoutType()
+    {
+        gson.fromJson("{\"name\":\"Unknown\",\"targetValue\":1}", Goal.class);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsUnknownTypesAsParseErrors()
+    {
+        // Such as a type added by a newer version, which loading skips instead of failing on
+        gson.fromJson("{\"type\":\"FUTURE\",\"goal\":{\"name\":\"Later\"}}", Goal.class);
+    }
+}
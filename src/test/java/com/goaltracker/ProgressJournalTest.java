@@ -0,0 +1,214 @@
+package com.goaltracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProgressJournalTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ScheduledExecutorService executor;
+    private Path directory;
+
+    @Before
+    public void setUp()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        directory = folder.getRoot().toPath().resolve("profile");
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void replaysSamplesAfterReopening() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        assertTrue(journal.open().isEmpty());
+        journal.append("a", 1000, 1);
+        journal.append("b", 1500, 10);
+        journal.append("a", 2000, 2);
+        journal.close();
+
+        Map<String, ProgressHistory> histories = reopen();
+
+        assertSamples(histories.get("a"), 1000, 1, 2000, 2);
+        assertSamples(histories.get("b"), 1500, 10);
+    }
+
+    @Test
+    public void dropsRemovedGoals() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        journal.open();
+        journal.append("a", 1000, 1);
+        journal.append("b", 1000, 10);
+        journal.remove("a");
+        journal.close();
+
+        Map<String, ProgressHistory> histories = reopen();
+
+        assertFalse(histories.containsKey("a"));
+        assertSamples(histories.get("b"), 1000, 10);
+    }
+
+    @Test
+    public void doesNotReuseHandlesOfRemovedGoals() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        journal.open();
+        journal.append("a", 1000, 1);
+        journal.append("b", 1000, 10);
+        journal.remove("a");
+        // Handed the next handle after b's, not the one a had, which b's samples would then be read as
+        journal.append("c", 2000, 100);
+        journal.append("b", 2000, 20);
+        journal.close();
+
+        Map<String, ProgressHistory> histories = reopen();
+
+        assertSamples(histories.get("b"), 1000, 10, 2000, 20);
+        assertSamples(histories.get("c"), 2000, 100);
+    }
+
+    @Test
+    public void continuesHandlesAfterReplay() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        journal.open();
+        journal.append("a", 1000, 1);
+        journal.append("b", 1000, 10);
+        journal.remove("a");
+        // Not closed, as after a crash, so the journal is not compacted and its handles stay in use
+        journal.drain();
+
+        // The handles in use are only known from replaying the journal
+        journal = new ProgressJournal(directory, executor);
+        journal.open();
+        journal.append("c", 2000, 100);
+        journal.append("b", 2000, 20);
+        journal.close();
+
+        Map<String, ProgressHistory> histories = reopen();
+
+        assertSamples(histories.get("b"), 1000, 10, 2000, 20);
+        assertSamples(histories.get("c"), 2000, 100);
+    }
+
+    @Test
+    public void dropsSamplesWhileNotOpen() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        journal.append("a", 1000, 1);
+        journal.remove("b");
+        journal.open();
+        journal.append("a", 2000, 2);
+        journal.close();
+        journal.append("a", 3000, 3);
+
+        assertSamples(reopen().get("a"), 2000, 2);
+    }
+
+    @Test
+    public void replaysWhatWasDrainedWhileOpen() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        journal.open();
+        journal.append("a", 1000, 1);
+        journal.drain();
+        journal.append("a", 2000, 2);
+        journal.drain();
+
+        // Read again without closing, both from the journal as written so far
+        assertSamples(journal.replay().get("a"), 1000, 1, 2000, 2);
+        assertSamples(journal.open().get("a"), 1000, 1, 2000, 2);
+        journal.close();
+    }
+
+    @Test
+    public void ignoresRecordCutShort() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        journal.open();
+        journal.append("a", 1000, 1);
+        journal.drain();
+
+        // A crash left a sample's type written but the rest still the file's zero fill, which would
+        // read as a sample of handle 0: header, define of "a" and one sample come first
+        int end = 8 + (1 + 4 + 2 + 1 + 4) + (1 + 4 + 8 + 4 + 4);
+        try (FileChannel channel = FileChannel.open(directory.resolve("progress.journal"), StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.wrap(new byte[]{2}), end);
+        }
+
+        journal = new ProgressJournal(directory, executor);
+        assertSamples(journal.open().get("a"), 1000, 1);
+        // Written over the cut record
+        journal.append("a", 2000, 2);
+        journal.close();
+
+        assertSamples(reopen().get("a"), 1000, 1, 2000, 2);
+    }
+
+    @Test
+    public void compactsOnClose() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        journal.open();
+        journal.append("a", 1000, 1);
+        journal.close();
+
+        assertTrue(Files.exists(directory.resolve("progress.snapshot")));
+        try (FileChannel channel = FileChannel.open(directory.resolve("progress.journal"), StandardOpenOption.READ))
+        {
+            // Nothing left after the header
+            ByteBuffer record = ByteBuffer.allocate(1);
+            channel.read(record, 8);
+            assertEquals(0, record.get(0));
+        }
+        assertSamples(reopen().get("a"), 1000, 1);
+    }
+
+    private Map<String, ProgressHistory> reopen() throws IOException
+    {
+        ProgressJournal journal = new ProgressJournal(directory, executor);
+        try
+        {
+            return journal.open();
+        }
+        finally
+        {
+            journal.close();
+        }
+    }
+
+    private static void assertSamples(ProgressHistory history, long... timesAndValues)
+    {
+        assertEquals(timesAndValues.length / 2, history.size());
+        for (int i = 0; i < history.size(); i++)
+        {
+            assertEquals(timesAndValues[i * 2], history.getTime(i));
+            assertEquals(timesAndValues[i * 2 + 1], history.getValue(i));
+        }
+    }
+}